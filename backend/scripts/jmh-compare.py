@@ -0,0 +1,66 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and flag regressions.
+
+    mvn -Pbenchmark test-compile exec:exec -Dbenchmark.result=baseline.json
+    ... change things ...
+    mvn -Pbenchmark test-compile exec:exec
+    scripts/jmh-compare.py baseline.json target/jmh-result.json --threshold 10
+
+A benchmark regresses when it got worse by more than --threshold percent and the
+gap is larger than the two runs' error margins combined, so noisy runs don't trip
+it. Exits with status 1 when anything regressed.
+"""
+import argparse
+import json
+import sys
+
+# modes where a larger score is better; the rest are times per operation
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+            key = run["benchmark"] + (f"({params})" if params else "") + " " + run["mode"]
+            metric = run["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = (run["mode"], metric["score"], 0.0 if error in (None, "NaN") else float(error),
+                            metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown in percent")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+    for key in sorted(current):
+        mode, score, error, unit = current[key]
+        if key not in baseline:
+            print(f"  new        {key}: {score:.3f} {unit}")
+            continue
+        _, base_score, base_error, _ = baseline[key]
+        worse = (base_score - score) if mode in HIGHER_IS_BETTER else (score - base_score)
+        change = worse / base_score * 100 if base_score else 0.0
+        regressed = change > args.threshold and worse > error + base_error
+        regressions += regressed
+        label = "REGRESSED" if regressed else ("improved" if change < -args.threshold else "ok")
+        print(f"  {label:<10} {key}: {base_score:.3f} -> {score:.3f} {unit} ({change:+.1f}% worse)")
+    for key in sorted(set(baseline) - set(current)):
+        print(f"  missing    {key}")
+
+    if regressions:
+        print(f"{regressions} benchmark(s) regressed by more than {args.threshold}%")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,163 @@
+package com.example.backend.cache;
+
+import com.example.backend.util.AfterCommit;
+import com.example.backend.util.PrimaryReads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds list responses as already-encoded JSON (plus a gzip copy) keyed by a version
+ * counter per entity type. Services bump the counter on every write; a request whose
+ * If-None-Match matches the current version gets a 304 without the service being called.
+ * The gzip copy is made once per version at the highest level, since every request until
+ * the next write is served from it. There's no brotli copy: the JDK has no encoder for it.
+ */
+@Component
+public class ResponseCache {
+
+    // responses smaller than this aren't worth compressing
+    private static final int GZIP_THRESHOLD_BYTES = 1024;
+
+    // versions restart at zero on every boot, so the boot time keeps old ETags from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public long currentVersion(Class<?> entityType) {
+        return versions.computeIfAbsent(entityType, type -> new AtomicLong()).get();
+    }
+
+    /**
+     * Marks cached responses for the entity type stale. Inside a transaction the bump waits
+     * for commit so a concurrent reader can't cache the old rows under the new version; loaders
+     * read from the primary for the same reason, since a replica may not have the commit yet.
+     */
+    public void bumpVersion(Class<?> entityType) {
+        AfterCommit.run(() -> versions.computeIfAbsent(entityType, type -> new AtomicLong()).incrementAndGet());
+    }
+
+    public ResponseEntity<byte[]> serve(String key, Class<?> entityType, String ifNoneMatch,
+                                        String acceptEncoding, Supplier<?> loader) {
+        long version = currentVersion(entityType);
+        String etag = etag(key, version, false);
+        String gzipEtag = etag(key, version, true);
+
+        if (matches(ifNoneMatch, etag) || matches(ifNoneMatch, gzipEtag)) {
+            boolean gzip = matches(ifNoneMatch, gzipEtag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? gzipEtag : etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        CachedResponse cached = responses.get(key);
+        if (cached == null || cached.version != version) {
+            cached = encode(version, PrimaryReads.call(loader));
+            responses.put(key, cached);
+        }
+
+        boolean gzip = cached.gzipBody != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? gzipEtag : etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return builder.body(cached.gzipBody);
+        }
+        return builder.body(cached.body);
+    }
+
+    private CachedResponse encode(long version, Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] gzipBody = body.length >= GZIP_THRESHOLD_BYTES ? gzip(body) : null;
+            return new CachedResponse(version, body, gzipBody);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cached response", e);
+        }
+    }
+
+    private String etag(String key, long version, boolean gzip) {
+        return "\"" + key + "-" + epoch + "-" + version + (gzip ? "-gz" : "") + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "gzip;q=0" is a refusal, not an offer
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.toLowerCase().split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            if (name.equals("gzip")) {
+                return !refused;
+            } else if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class CachedResponse {
+        private final long version;
+        private final byte[] body;
+        private final byte[] gzipBody;
+
+        private CachedResponse(long version, byte[] body, byte[] gzipBody) {
+            this.version = version;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+    }
+}
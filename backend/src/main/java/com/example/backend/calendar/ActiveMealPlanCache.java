@@ -0,0 +1,122 @@
+package com.example.backend.calendar;
+
+import com.example.backend.dto.MealDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Meal plans that end on or after {@link #getWindowStart()}: the current, upcoming and
+ * recently finished ones the calendar mostly shows. Reads go to an immutable
+ * {@link MealPlanIntervalTree}; writes build a new tree and swap it in, which is cheap
+ * at this size and keeps reads lock-free.
+ */
+@Component
+public class ActiveMealPlanCache {
+
+    private volatile Snapshot snapshot = new Snapshot(LocalDate.MAX, new MealPlanIntervalTree(new ArrayList<>()));
+
+    private final Object loadLock = new Object();
+
+    // plans saved (or deleted, as null) while a load reads; they're newer than the rows it read
+    private Map<Long, MealDTO> changedDuringLoad;
+
+    public LocalDate getWindowStart() {
+        return snapshot.windowStart;
+    }
+
+    public int size() {
+        return snapshot.tree.size();
+    }
+
+    /** True when every plan overlapping [from, to] is in memory. */
+    public boolean covers(LocalDate from) {
+        return !from.isBefore(snapshot.windowStart);
+    }
+
+    public List<MealDTO> overlapping(LocalDate from, LocalDate to) {
+        return snapshot.tree.overlapping(from, to);
+    }
+
+    public void load(LocalDate windowStart, Collection<MealDTO> plans) {
+        load(windowStart, () -> plans);
+    }
+
+    /**
+     * Replaces the cache with the plans {@code reader} returns. Plans saved or deleted
+     * while it reads are applied on top, so a read that started before them can't undo them.
+     */
+    public void load(LocalDate windowStart, Supplier<? extends Collection<MealDTO>> reader) {
+        synchronized (loadLock) {
+            synchronized (this) {
+                changedDuringLoad = new LinkedHashMap<>();
+            }
+            try {
+                Map<Long, MealDTO> plans = new LinkedHashMap<>();
+                for (MealDTO plan : reader.get()) {
+                    plans.put(plan.getId(), plan);
+                }
+                synchronized (this) {
+                    for (Map.Entry<Long, MealDTO> change : changedDuringLoad.entrySet()) {
+                        if (inWindow(change.getValue(), windowStart)) {
+                            plans.put(change.getKey(), change.getValue());
+                        } else {
+                            plans.remove(change.getKey());
+                        }
+                    }
+                    snapshot = new Snapshot(windowStart, new MealPlanIntervalTree(plans.values()));
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    public synchronized void put(MealDTO plan) {
+        Snapshot current = snapshot;
+        List<MealDTO> plans = without(current, plan.getId());
+        if (inWindow(plan, current.windowStart)) {
+            plans.add(plan);
+        }
+        snapshot = new Snapshot(current.windowStart, new MealPlanIntervalTree(plans));
+        if (changedDuringLoad != null) {
+            changedDuringLoad.put(plan.getId(), plan);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.windowStart, new MealPlanIntervalTree(without(current, id)));
+        if (changedDuringLoad != null) {
+            changedDuringLoad.put(id, null);
+        }
+    }
+
+    private static boolean inWindow(MealDTO plan, LocalDate windowStart) {
+        return plan != null && plan.getEndDate() != null && !plan.getEndDate().isBefore(windowStart);
+    }
+
+    private static List<MealDTO> without(Snapshot snapshot, Long id) {
+        List<MealDTO> plans = snapshot.tree.all();
+        plans.removeIf(existing -> existing.getId().equals(id));
+        return plans;
+    }
+
+    private static final class Snapshot {
+        private final LocalDate windowStart;
+        private final MealPlanIntervalTree tree;
+
+        private Snapshot(LocalDate windowStart, MealPlanIntervalTree tree) {
+            this.windowStart = windowStart;
+            this.tree = tree;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.calendar;
+
+import com.example.backend.dto.MealDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over meal plans: a balanced search tree on start date laid
+ * out in a start-sorted array, where every node also knows the latest end date in its
+ * subtree. An overlap query skips any subtree that ends before the window or starts
+ * after it, so it costs O(log n + matches).
+ */
+public final class MealPlanIntervalTree {
+
+    private static final Comparator<MealDTO> BY_START = Comparator
+            .comparing(MealDTO::getStartDate)
+            .thenComparing(MealDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final MealDTO[] plans;
+
+    // maxEnd[i] = latest end date in the subtree rooted at the middle of the range i was picked from
+    private final LocalDate[] maxEnd;
+
+    public MealPlanIntervalTree(Collection<MealDTO> source) {
+        List<MealDTO> sorted = new ArrayList<>(source.size());
+        for (MealDTO plan : source) {
+            if (plan.getStartDate() != null && plan.getEndDate() != null) {
+                sorted.add(plan);
+            }
+        }
+        sorted.sort(BY_START);
+        this.plans = sorted.toArray(new MealDTO[0]);
+        this.maxEnd = new LocalDate[plans.length];
+        build(0, plans.length - 1);
+    }
+
+    public int size() {
+        return plans.length;
+    }
+
+    public List<MealDTO> all() {
+        List<MealDTO> all = new ArrayList<>(plans.length);
+        for (MealDTO plan : plans) {
+            all.add(plan);
+        }
+        return all;
+    }
+
+    /** Plans with start <= to and end >= from, in start date order. */
+    public List<MealDTO> overlapping(LocalDate from, LocalDate to) {
+        List<MealDTO> results = new ArrayList<>();
+        collect(0, plans.length - 1, from, to, results);
+        return results;
+    }
+
+    private LocalDate build(int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        LocalDate latest = plans[mid].getEndDate();
+        latest = later(latest, build(low, mid - 1));
+        latest = later(latest, build(mid + 1, high));
+        maxEnd[mid] = latest;
+        return latest;
+    }
+
+    private void collect(int low, int high, LocalDate from, LocalDate to, List<MealDTO> results) {
+        if (low > high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (maxEnd[mid].isBefore(from)) {
+            return;
+        }
+        collect(low, mid - 1, from, to, results);
+        MealDTO plan = plans[mid];
+        if (plan.getStartDate().isAfter(to)) {
+            // everything to the right starts even later
+            return;
+        }
+        if (!plan.getEndDate().isBefore(from)) {
+            results.add(plan);
+        }
+        collect(mid + 1, high, from, to, results);
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.config;
+
+import com.example.backend.util.PrimaryReads;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections taken inside a {@code @Transactional(readOnly = true)} transaction to
+ * the replica and everything else to the primary. The transaction's read-only flag is only
+ * set once it has begun, so this has to sit behind a lazy connection proxy. Reads inside
+ * {@link PrimaryReads#call} stay on the primary.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return usesReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly()) ? REPLICA : PRIMARY;
+    }
+
+    static boolean usesReplica(boolean readOnly) {
+        return readOnly && !PrimaryReads.isActive();
+    }
+}
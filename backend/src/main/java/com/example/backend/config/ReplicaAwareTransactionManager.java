@@ -0,0 +1,71 @@
+package com.example.backend.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+
+/**
+ * Runs the transactions {@link ReadReplicaRoutingDataSource} sends to the replica with
+ * {@link CacheMode#GET}: they read the second-level and query caches but don't fill them.
+ * A lagging replica would otherwise put rows the primary already replaced into the shared
+ * caches, and nothing would evict them until the next write.
+ */
+class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    ReplicaAwareTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    // the factory's own dialect is picked up here, so ours has to be set after it
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        setJpaDialect(new ReplicaCacheModeDialect());
+    }
+
+    private static final class ReplicaCacheModeDialect extends HibernateJpaDialect {
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            if (!ReadReplicaRoutingDataSource.usesReplica(definition.isReadOnly())) {
+                return transactionData;
+            }
+            // with open-in-view the session outlives the transaction, so its mode is put back afterwards
+            Session session = entityManager.unwrap(Session.class);
+            CacheMode previousCacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            return new ReplicaTransactionData(transactionData, session, previousCacheMode);
+        }
+
+        @Override
+        public void cleanupTransaction(Object transactionData) {
+            if (transactionData instanceof ReplicaTransactionData) {
+                ReplicaTransactionData replicaData = (ReplicaTransactionData) transactionData;
+                replicaData.session.setCacheMode(replicaData.previousCacheMode);
+                super.cleanupTransaction(replicaData.delegate);
+            } else {
+                super.cleanupTransaction(transactionData);
+            }
+        }
+    }
+
+    private static final class ReplicaTransactionData {
+        private final Object delegate;
+        private final Session session;
+        private final CacheMode previousCacheMode;
+
+        private ReplicaTransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+            this.delegate = delegate;
+            this.session = session;
+            this.previousCacheMode = previousCacheMode;
+        }
+    }
+}
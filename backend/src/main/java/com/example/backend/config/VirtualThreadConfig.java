@@ -0,0 +1,75 @@
+package com.example.backend.config;
+
+import com.example.backend.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in ({@code execution.virtual-threads=true}) mode where Tomcat runs each request,
+ * and MVC runs async and streaming responses, on its own virtual thread, so blocking
+ * JDBC and file I/O park a virtual thread instead of holding a platform one. Setting
+ * {@code execution.db-permits} fronts each connection pool with a
+ * {@link ConcurrencyLimitedDataSource} of that many permits; it's off by default, since
+ * limiting to the pool size measured slower than letting Hikari queue the waiters.
+ *
+ * <p>Needs a Java 21+ runtime; on older JVMs the platform thread pools are kept and
+ * only the connection limit, if set, applies.
+ */
+@Configuration
+@ConditionalOnProperty(name = "execution.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> {
+            if (VirtualThreads.available()) {
+                protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-vt-"));
+            } else {
+                log.warn("execution.virtual-threads is set but Java {} has no virtual threads; "
+                        + "keeping Tomcat's platform thread pool", Runtime.version().feature());
+            }
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (VirtualThreads.available()) {
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("mvc-async-vt-");
+            configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+        }
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimiter(
+            @Value("${execution.db-permits:0}") int permits,
+            @Value("${execution.db-acquire-timeout-ms:30000}") long acquireTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // 0 leaves the pools as they are; otherwise only the pools themselves are wrapped,
+                // as routing and proxy data sources sit in front of them
+                if (permits > 0 && bean instanceof DataSource && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new ConcurrencyLimitedDataSource((DataSource) bean, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CacheRegionStatsDTO;
+import com.example.backend.service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/cache")
+@CrossOrigin
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @GetMapping(path = "/stats")
+    public List<CacheRegionStatsDTO> getRegionStats() {
+        return cacheService.getRegionStats();
+    }
+
+    @DeleteMapping(path = "/evict-all")
+    public String evictAll() {
+        return cacheService.evictAll();
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.MealDTO;
+import com.example.backend.dto.ShoppingListDTO;
 import com.example.backend.entity.Meal;
 import com.example.backend.service.MealService;
+import com.example.backend.service.ShoppingListService;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.util.EntityTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,14 +25,21 @@ import java.util.List;
 @CrossOrigin
 public class MealController {
 
+    private static final Logger log = LoggerFactory.getLogger(MealController.class);
+
     @Autowired
     private MealService mealService;
 
+    @Autowired
+    private ShoppingListService shoppingListService;
+
     @PostMapping("/save")
     public ResponseEntity<Meal> createMeal(@RequestBody Meal meal) {
         try {
             Meal savedMeal = mealService.saveMeal(meal);
             return new ResponseEntity<>(savedMeal, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -43,31 +60,79 @@ public class MealController {
         }
     }
 
+    // plans overlapping [from, to], e.g. a calendar week or month
+    @GetMapping("/range")
+    public ResponseEntity<List<MealDTO>> getMealsInRange(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(mealService.getMealsInRange(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // plans running on the given day, today by default
+    @GetMapping("/active")
+    public ResponseEntity<List<MealDTO>> getActiveMeals(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        return new ResponseEntity<>(mealService.getMealsInRange(day, day), HttpStatus.OK);
+    }
+
+    // everything the recipes planned between from and to call for, added up per ingredient and unit
+    @GetMapping("/shopping-list")
+    public ResponseEntity<ShoppingListDTO> getShoppingList(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return new ResponseEntity<>(shoppingListService.buildShoppingList(from, to), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PutMapping("/update/{id}")
-    public ResponseEntity<String> updateMeal(@PathVariable("id") Long id, @RequestBody Meal meal) {
+    public ResponseEntity<String> updateMeal(@PathVariable("id") Long id, @RequestBody Meal meal,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
         try {
-            boolean updated = mealService.updateMeal(id, meal);
+            boolean updated = mealService.updateMeal(id, meal, expectedVersion);
 
             if (updated) {
                 return new ResponseEntity<>("Meal updated successfully", HttpStatus.OK);
             } else {
                 return new ResponseEntity<>("Could not find meal with id: " + id, HttpStatus.NOT_FOUND);
             }
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (StaleVersionException e) {
+            return new ResponseEntity<>("Meal " + id + " has changed since it was read", HttpStatus.PRECONDITION_FAILED);
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Meal {} lost a concurrent update: {}", id, e.getMessage());
+            return new ResponseEntity<>("Meal " + id + " is being changed concurrently", HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<String> deleteMeal(@PathVariable("id") Long id) {
+    public ResponseEntity<String> deleteMeal(@PathVariable("id") Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
         try {
-            boolean deleted = mealService.deleteMeal(id);
+            boolean deleted = mealService.deleteMeal(id, expectedVersion);
 
             if (deleted) {
                 return new ResponseEntity<>("Meal deleted successfully", HttpStatus.OK);
             } else {
                 return new ResponseEntity<>("Could not find meal with id: " + id, HttpStatus.NOT_FOUND);
             }
+        } catch (StaleVersionException e) {
+            return new ResponseEntity<>("Meal " + id + " has changed since it was read", HttpStatus.PRECONDITION_FAILED);
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Meal {} lost a concurrent update: {}", id, e.getMessage());
+            return new ResponseEntity<>("Meal " + id + " is being changed concurrently", HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -0,0 +1,26 @@
+package com.example.backend.controller;
+
+import com.example.backend.media.MediaServer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Controller
+@CrossOrigin
+public class MediaController {
+
+    @Autowired
+    private MediaServer mediaServer;
+
+    @GetMapping(path = "/uploads/{fileName:.+}")
+    public void serveUpload(@PathVariable String fileName, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        mediaServer.serve(fileName, request, response);
+    }
+}
@@ -1,13 +1,31 @@
 package com.example.backend.controller;
 
+import com.example.backend.cache.ResponseCache;
+import com.example.backend.dto.ImportResultDTO;
+import com.example.backend.dto.LeaderboardEntryDTO;
 import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipePageDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.service.LeaderboardService;
 import com.example.backend.service.RecipeService;
+import com.example.backend.service.RecipeTransferService;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.util.EntityTags;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
@@ -15,9 +33,20 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"}, allowCredentials = "true")
 public class RecipeController {
 
+    private static final Logger log = LoggerFactory.getLogger(RecipeController.class);
+
     @Autowired
     private RecipeService recipeService;
 
+    @Autowired
+    private RecipeTransferService recipeTransferService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @PostMapping("/save")
@@ -41,46 +70,156 @@ public class RecipeController {
             String savedRecipe = String.valueOf(recipeService.saveRecipe(recipeDTO, images));
             return "Recipe saved successfully";
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Saving recipe failed", e);
             return "Error saving recipe: " + e.getMessage();
         }
     }
 
     @GetMapping("/get-all")
-    public List<RecipeDTO> getAllRecipes() {
+    public ResponseEntity<byte[]> getAllRecipes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            return responseCache.serve("recipe-get-all", Recipe.class, ifNoneMatch, acceptEncoding,
+                    recipeService::getAllRecipes);
+        } catch (Exception e) {
+            log.error("Listing recipes failed", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/top")
+    public List<LeaderboardEntryDTO> getTopRated(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return leaderboardService.getTopRated(category, limit);
+    }
+
+    @GetMapping("/trending")
+    public List<LeaderboardEntryDTO> getTrending(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return leaderboardService.getTrending(category, limit);
+    }
+
+    @GetMapping("/get-page")
+    public ResponseEntity<RecipePageDTO> getRecipePage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(recipeService.getRecipePage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Reading recipe page failed", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // body is NDJSON (one RecipeDTO per line) or CSV with a header row; ids in the input are ignored
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDTO> importRecipes(
+            @RequestParam(value = "format", defaultValue = RecipeTransferService.FORMAT_NDJSON) String format,
+            HttpServletRequest request) {
         try {
-            return recipeService.getAllRecipes();
+            return ResponseEntity.ok(recipeTransferService.importRecipes(request.getInputStream(), format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            log.error("Recipe import failed", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(
+            @RequestParam(value = "format", defaultValue = RecipeTransferService.FORMAT_NDJSON) String format) {
+        MediaType contentType;
+        if (RecipeTransferService.FORMAT_CSV.equalsIgnoreCase(format)) {
+            contentType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+        } else if (RecipeTransferService.FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            contentType = MediaType.parseMediaType("application/x-ndjson");
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> recipeTransferService.exportRecipes(outputStream, format);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
+    // with If-Match the update only goes through while the recipe is still at that version; without it,
+    // a write that loses a race with another one gets a 409 rather than silently overwriting it
     @PutMapping("/update/{id}")
     public ResponseEntity<RecipeDTO> updateRecipe(
             @PathVariable Long id,
-            @RequestBody RecipeDTO recipeDTO) {
+            @RequestBody RecipeDTO recipeDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
         try {
-            RecipeDTO updatedRecipe = recipeService.updateRecipe(id, recipeDTO);
+            RecipeDTO updatedRecipe = recipeService.updateRecipe(id, recipeDTO, expectedVersion);
             if (updatedRecipe != null) {
-                return ResponseEntity.ok(updatedRecipe);
+                return ResponseEntity.ok().eTag(EntityTags.of(updatedRecipe.getVersion())).body(updatedRecipe);
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Recipe {} lost a concurrent update: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Updating recipe {} failed", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // JSON Merge Patch: only the members sent are changed, null clears one
+    @PatchMapping(path = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<RecipeDTO> patchRecipe(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        try {
+            RecipeDTO patchedRecipe = recipeService.patchRecipe(id, patch, expectedVersion);
+            if (patchedRecipe != null) {
+                return ResponseEntity.ok().eTag(EntityTags.of(patchedRecipe.getVersion())).body(patchedRecipe);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Recipe {} lost a concurrent update: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Patching recipe {} failed", id, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @DeleteMapping("/delete/{id}")
-    public String deleteRecipe(@PathVariable Long id) {
+    public ResponseEntity<String> deleteRecipe(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
         try {
-            recipeService.deleteRecipe(id);
-            return "Recipe deleted successfully";
+            recipeService.deleteRecipe(id, expectedVersion);
+            return ResponseEntity.ok("Recipe deleted successfully");
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Recipe " + id + " has changed since it was read");
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Recipe {} lost a concurrent update: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Recipe " + id + " is being changed concurrently");
         } catch (Exception e) {
-            e.printStackTrace();
-            return "Error deleting recipe: " + e.getMessage();
+            log.error("Deleting recipe {} failed", id, e);
+            return ResponseEntity.ok("Error deleting recipe: " + e.getMessage());
         }
     }
 }
@@ -1,12 +1,23 @@
 package com.example.backend.controller;
 
 
+import com.example.backend.cache.ResponseCache;
 import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.ReviewPageDTO;
+import com.example.backend.entity.Review;
 import com.example.backend.service.ReviewService;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.util.EntityTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Instant;
 
 @RestController
 //Controller ekk kiyl define krne me word eken and frontend ekt return krn data json fromat ekt convert krl send krnw
@@ -14,9 +25,14 @@ import java.util.List;
 @CrossOrigin //Security Perpose walata use krnne
 public class ReviewController {
 
+    private static final Logger log = LoggerFactory.getLogger(ReviewController.class);
+
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
     @PostMapping(path = "/save")
     public String saveReview(@RequestBody ReviewDTO reviewDTO) {
         String message = reviewService.saveReview(reviewDTO);
@@ -24,19 +40,59 @@ public class ReviewController {
     }
 
     @GetMapping(path = "/get-all-reviews")
-    public List<ReviewDTO> getAllReviews() {
-        return reviewService.getAllReviews();
+    public ResponseEntity<byte[]> getAllReviews(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.serve("review-get-all", Review.class, ifNoneMatch, acceptEncoding,
+                reviewService::getAllReviews);
+    }
+
+    @GetMapping(path = "/feed")
+    public ResponseEntity<ReviewPageDTO> getReviewFeed(
+            @RequestParam(value = "recipeId", required = false) Long recipeId,
+            @RequestParam(value = "minRating", required = false) Integer minRating,
+            @RequestParam(value = "maxRating", required = false) Integer maxRating,
+            @RequestParam(value = "since", required = false) Instant since,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewFeed(recipeId, minRating, maxRating, since, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping(path = "/update/{id}")
-    public String updateReview(@PathVariable Long id, @RequestBody ReviewDTO reviewDTO) {
-        String message = reviewService.updateReview(id, reviewDTO);
-        return message;
+    public ResponseEntity<String> updateReview(@PathVariable Long id, @RequestBody ReviewDTO reviewDTO,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        try {
+            return ResponseEntity.ok(reviewService.updateReview(id, reviewDTO, expectedVersion));
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Review " + id + " has changed since it was read");
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Review {} lost a concurrent update: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Review " + id + " is being changed concurrently");
+        }
+    }
+
+    // recomputes every recipe's review count, sum and average from the review table
+    @PostMapping(path = "/rebuild-aggregates")
+    public String rebuildRatingAggregates() {
+        return reviewService.rebuildRatingAggregates();
     }
 
     @DeleteMapping(path = "/delete/{id}")
-    public String deleteReview(@PathVariable Long id) {
-        String message = reviewService.deleteReview(id);
-        return message;
+    public ResponseEntity<String> deleteReview(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        try {
+            return ResponseEntity.ok(reviewService.deleteReview(id, expectedVersion));
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Review " + id + " has changed since it was read");
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Review {} lost a concurrent update: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Review " + id + " is being changed concurrently");
+        }
     }
 }
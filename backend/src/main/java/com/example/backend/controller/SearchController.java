@@ -0,0 +1,39 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.PantryMatchDTO;
+import com.example.backend.dto.PantryRequestDTO;
+import com.example.backend.dto.RecipeSearchResultDTO;
+import com.example.backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/search")
+@CrossOrigin
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping(path = "/recipes")
+    public ResponseEntity<RecipeSearchResultDTO> searchRecipes(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(searchService.searchRecipes(query, category, page, size));
+    }
+
+    @PostMapping(path = "/pantry")
+    public List<PantryMatchDTO> matchPantry(@RequestBody PantryRequestDTO pantryRequestDTO) {
+        return searchService.matchPantry(pantryRequestDTO);
+    }
+
+    @PostMapping(path = "/reindex")
+    public String reindexRecipes() {
+        return searchService.reindexRecipes();
+    }
+}
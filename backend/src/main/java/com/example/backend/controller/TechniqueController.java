@@ -1,8 +1,10 @@
 package com.example.backend.controller;
 
-import java.util.List;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,11 +14,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.cache.ResponseCache;
 import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.entity.Technique;
+import com.example.backend.service.StaleVersionException;
 import com.example.backend.service.TechniqueService;
+import com.example.backend.util.EntityTags;
 
 @RestController
 //Controller ekk kiyl define krne me word eken and frontend ekt return krn data json fromat ekt convert krl send krnw
@@ -24,9 +31,14 @@ import com.example.backend.service.TechniqueService;
 @CrossOrigin
 public class TechniqueController {
 
+    private static final Logger log = LoggerFactory.getLogger(TechniqueController.class);
+
     @Autowired
     private TechniqueService techniqueService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
     @PostMapping(path = "/save")
     public String saveTechnique(@RequestBody TechniqueDTO techniqueDTO) {
         String message = techniqueService.saveTechnique(techniqueDTO);
@@ -34,19 +46,41 @@ public class TechniqueController {
     }
 
     @GetMapping(path = "/get-all-techniques")
-    public List<TechniqueDTO> getAllTechniques() {
-        return techniqueService.getAllTechniques();
+    public ResponseEntity<byte[]> getAllTechniques(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.serve("technique-get-all", Technique.class, ifNoneMatch, acceptEncoding,
+                techniqueService::getAllTechniques);
     }
 
+    // a client write isn't retried: a lost race answers 409, like the other entities
     @PutMapping(path = "/update/{id}")
-    public String updateTechnique(@RequestBody TechniqueDTO techniqueDTO) {
-        String message = techniqueService.updateTechnique(techniqueDTO);
-        return message;
+    public ResponseEntity<String> updateTechnique(@RequestBody TechniqueDTO techniqueDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return ResponseEntity.ok(techniqueService.updateTechnique(techniqueDTO, EntityTags.expectedVersion(ifMatch)));
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Technique " + techniqueDTO.getTechniqueId() + " has changed since it was read");
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Technique {} lost a concurrent update: {}", techniqueDTO.getTechniqueId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Technique " + techniqueDTO.getTechniqueId() + " is being changed concurrently");
+        }
     }
 
     @DeleteMapping(path = "/delete/{id}")
-    public String deleteTechnique(@PathVariable(value = "id") Long techniqueId) {
-        String message = techniqueService.deleteTechnique(techniqueId);
-        return message;
+    public ResponseEntity<String> deleteTechnique(@PathVariable(value = "id") Long techniqueId,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return ResponseEntity.ok(techniqueService.deleteTechnique(techniqueId, EntityTags.expectedVersion(ifMatch)));
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Technique " + techniqueId + " has changed since it was read");
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Technique {} lost a concurrent update: {}", techniqueId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Technique " + techniqueId + " is being changed concurrently");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Long recipeId;
+    private String title;
+    private String category;
+    private Double rating;
+    private long reviewCount;
+    private String imageUrl;
+    // rating for /top, time-decayed review count for /trending
+    private double score;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +17,6 @@ public class MealDTO {
     private String description;
     private LocalDate startDate;
     private LocalDate endDate;
+    private List<PlannedRecipeDTO> recipes;
+    private Long version;
 }
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PantryMatchDTO {
+    private Long recipeId;
+    private String title;
+    private int matchedIngredients;
+    private int totalIngredients;
+    private double coverage;
+    private List<String> missingIngredients;
+}
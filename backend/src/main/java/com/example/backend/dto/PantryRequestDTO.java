@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PantryRequestDTO {
+    private List<String> ingredients;
+    private Integer limit;
+    // 0..1, recipes covering less of their ingredient list than this are left out
+    private Double minCoverage;
+}
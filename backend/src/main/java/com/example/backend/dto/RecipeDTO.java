@@ -20,5 +20,9 @@ public class RecipeDTO {
     private List<String> steps;
     private String category;
     private Double rating;
+    private long reviewCount;
+    // the uploaded original until its resized variants are ready, then /uploads/<hash>-<display-width>.jpg
     private Set<String> imageUrls;
+    // read-only; sent back as If-Match to make an update or delete conditional
+    private Long version;
 }
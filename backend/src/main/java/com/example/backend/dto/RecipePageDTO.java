@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipePageDTO {
+    private List<RecipeDTO> content;
+    // opaque token for the next page, null when there is nothing left
+    private String nextCursor;
+    private boolean hasMore;
+}
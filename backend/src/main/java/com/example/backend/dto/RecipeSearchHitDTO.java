@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSearchHitDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String category;
+    private Double rating;
+    private float score;
+}
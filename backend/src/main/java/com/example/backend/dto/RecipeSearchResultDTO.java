@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSearchResultDTO {
+    private long totalHits;
+    private List<RecipeSearchHitDTO> hits;
+    // category -> number of matching recipes, over the whole result set
+    private Map<String, Long> categoryFacets;
+}
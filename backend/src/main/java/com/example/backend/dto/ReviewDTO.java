@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,4 +17,7 @@ public class ReviewDTO {
     private String name;
     private String comment;
     private Integer rating;
+    private Long recipeId;
+    private Instant createdAt;
+    private Long version;
 }
\ No newline at end of file
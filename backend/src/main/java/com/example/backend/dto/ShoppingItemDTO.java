@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingItemDTO {
+    private String name;
+    // null when none of the recipes gave an amount ("salt to taste")
+    private Double quantity;
+    // g, ml, "" for a plain count, or a unit that doesn't convert (clove, can, ...)
+    private String unit;
+    // how many planned recipes call for it
+    private int uses;
+}
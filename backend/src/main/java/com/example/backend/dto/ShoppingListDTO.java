@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingListDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private int plannedRecipes;
+    private List<ShoppingItemDTO> items;
+}
@@ -14,4 +14,5 @@ public class TechniqueDTO {
     private String videoTutorial;
     private String difficultyLevel;
     private String tags;
+    private Long version;
 }
\ No newline at end of file
@@ -3,12 +3,25 @@ package com.example.backend.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "meal_plans")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@BatchSize(size = 100)
+// start-first serves "what starts in this window"; end-first keeps "still running after X" cheap
+// when most rows are long finished
+@Table(name = "meal_plans", indexes = {
+        @Index(name = "idx_meal_plan_dates", columnList = "start_date, end_date"),
+        @Index(name = "idx_meal_plan_end", columnList = "end_date, start_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +36,20 @@ public class Meal {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    @Column(name = "start_date")
     private LocalDate startDate;
 
+    @Column(name = "end_date")
     private LocalDate endDate;
+
+    // which recipe is cooked on which day and slot of the plan
+    @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "meal_plan_recipes", joinColumns = @JoinColumn(name = "meal_id"),
+            indexes = @Index(name = "idx_meal_plan_recipes_recipe", columnList = "recipe_id, plan_day"))
+    private List<PlannedRecipe> recipes = new ArrayList<>();
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,30 @@
+package com.example.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedRecipe {
+
+    @Column(name = "plan_day", nullable = false)
+    private LocalDate day;
+
+    // breakfast, lunch, dinner, snack, ...
+    @Column(name = "slot", length = 32)
+    private String slot;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    // how many times the recipe as written is made, e.g. 2 to double it
+    @Column(name = "multiplier")
+    private Double multiplier;
+}
@@ -1,9 +1,15 @@
 package com.example.backend.entity;
 
+import com.example.backend.shopping.ParsedIngredient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -11,14 +17,26 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "Recipe")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// cached query results hold ids only; entries since evicted from the region load 100 per statement
+@BatchSize(size = 100)
+// updates name only the changed columns, so a one-field edit doesn't rewrite the description
+@DynamicUpdate
+// best rated first, overall and per category
+@Table(name = "Recipe", indexes = {
+        @Index(name = "idx_recipe_rating", columnList = "rating, id"),
+        @Index(name = "idx_recipe_category_rating", columnList = "category, rating, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Recipe {
+    // pooled ids (a table on MySQL) let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,25 +45,59 @@ public class Recipe {
     @Column(length = 1000)
     private String description;
 
+    // positional, so editing one entry updates one row instead of rewriting the list
     @ElementCollection
+    @OrderColumn(name = "ingredient_order")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "recipe_ingredients", joinColumns = @JoinColumn(name = "dish_id"))
     @Column(name = "ingredient")
     private List<String> ingredients;
 
+    // the ingredients as the shopping list reads them, parsed whenever the list is written. Derived, so
+    // they don't move the version
     @ElementCollection
+    @OrderColumn(name = "ingredient_order")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "recipe_parsed_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
+    @OptimisticLock(excluded = true)
+    private List<ParsedIngredient> parsedIngredients;
+
+    @ElementCollection
+    @OrderColumn(name = "step_order")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "recipe_steps", joinColumns = @JoinColumn(name = "dish_id"))
     @Column(name = "step", length = 1000)
     private List<String> steps;
 
     private String category;
 
+    // editor-supplied until the first review, then the Bayesian average kept up by ReviewServiceIMPL.
+    // Review aggregates don't move the version: edits never write these columns, and a popular recipe
+    // would otherwise fail every editor's If-Match
+    @OptimisticLock(excluded = true)
     private Double rating;
 
+    // running aggregate over linked reviews, so listings never need AVG() over the review table
+    @OptimisticLock(excluded = true)
+    private long reviewCount;
+
+    @OptimisticLock(excluded = true)
+    private long ratingSum;
+
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "recipe_images", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "image_url", length = 1000)
     private Set<String> imageUrls = new HashSet<>();
 
+    // checked and bumped by every edit, including edits to the lists; the API hands it out as the ETag
+    @Version
+    private Long version;
+
     public void setMediaType(String image) {
     }
 }
\ No newline at end of file
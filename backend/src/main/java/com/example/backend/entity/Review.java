@@ -5,8 +5,21 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@BatchSize(size = 100)
+// feed access paths: newest first overall, and newest first per recipe (also serves lookups by recipe)
+@Table(indexes = {
+        @Index(name = "idx_review_created", columnList = "created_at, id"),
+        @Index(name = "idx_review_recipe_created", columnList = "recipe_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,4 +38,15 @@ public class Review {
 
     @Column(nullable = false)
     private Integer rating;
+
+    // null for reviews written before reviews were linked to recipes
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    // null for reviews written before it was recorded; those don't appear in the feed
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.RecipeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by RecipeServiceIMPL on every write. In-memory indexes pick it up
+ * with {@code @TransactionalEventListener} so they only see committed data.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeChangedEvent {
+    private final Long recipeId;
+    // current state of the recipe, null when it was deleted
+    private final RecipeDTO recipe;
+
+    public boolean isDeleted() {
+        return recipe == null;
+    }
+}
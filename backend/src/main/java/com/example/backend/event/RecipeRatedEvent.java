@@ -0,0 +1,16 @@
+package com.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ReviewServiceIMPL when a review changes a recipe's rating aggregates.
+ * Only the rating moved, so listeners that index recipe text don't need to re-read it.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeRatedEvent {
+    private final Long recipeId;
+    private final Double rating;
+    private final long reviewCount;
+}
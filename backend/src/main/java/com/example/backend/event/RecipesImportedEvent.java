@@ -0,0 +1,17 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.RecipeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published once per committed import chunk, so indexes can apply the whole chunk
+ * in one go instead of handling a {@link RecipeChangedEvent} per row.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipesImportedEvent {
+    private final List<RecipeDTO> recipes;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ReviewServiceIMPL when a new review is attached to a recipe; feeds
+ * the trending leaderboard's review velocity.
+ */
+@Getter
+@AllArgsConstructor
+public class ReviewPostedEvent {
+    private final Long recipeId;
+    private final long postedAtMillis;
+}
@@ -0,0 +1,294 @@
+package com.example.backend.leaderboard;
+
+import com.example.backend.dto.LeaderboardEntryDTO;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.event.RecipeChangedEvent;
+import com.example.backend.event.RecipeRatedEvent;
+import com.example.backend.event.RecipesImportedEvent;
+import com.example.backend.event.ReviewPostedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Best rated and trending recipes, overall and per category, kept in sorted skip
+ * lists so a leaderboard read walks only the first K entries.
+ *
+ * <p>Trending is an exponentially decayed review count. Every score decays at the same
+ * rate, so the ordering never changes with time alone; scores are kept as logs relative
+ * to a fixed epoch and only converted to "reviews as of now" when read.
+ */
+@Component
+public class RecipeLeaderboard {
+
+    private static final String ALL = "";
+
+    private static final Comparator<Ranked> BY_RATING = Comparator
+            .comparingDouble((Ranked ranked) -> ranked.rating).reversed()
+            .thenComparing(Comparator.comparingLong((Ranked ranked) -> ranked.reviewCount).reversed())
+            .thenComparingLong(ranked -> ranked.recipeId);
+
+    private static final Comparator<Ranked> BY_TREND = Comparator
+            .comparingDouble((Ranked ranked) -> ranked.logTrend).reversed()
+            .thenComparingLong(ranked -> ranked.recipeId);
+
+    private final long epochMillis = System.currentTimeMillis();
+
+    // decay rate per millisecond
+    private final double lambda;
+
+    // writers take this lock; readers only walk the skip lists
+    private final Object writeLock = new Object();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Boards boards = new Boards();
+
+    // recipes put or removed while a rebuild loads; their live entries win over the loaded rows
+    private Set<Long> changedDuringRebuild;
+
+    public RecipeLeaderboard(@Value("${leaderboard.trending.half-life-hours:24}") double halfLifeHours) {
+        this.lambda = Math.log(2) / (halfLifeHours * 3_600_000d);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getRecipeId());
+        } else {
+            put(event.getRecipe());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        for (RecipeDTO recipe : event.getRecipes()) {
+            put(recipe);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeRated(RecipeRatedEvent event) {
+        rate(event.getRecipeId(), event.getRating(), event.getReviewCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewPosted(ReviewPostedEvent event) {
+        recordReview(event.getRecipeId(), event.getPostedAtMillis());
+    }
+
+    public void put(RecipeDTO recipe) {
+        synchronized (writeLock) {
+            Boards current = boards;
+            Ranked previous = current.recipes.get(recipe.getId());
+            double logTrend = previous != null ? previous.logTrend : Double.NEGATIVE_INFINITY;
+            current.replace(previous, new Ranked(recipe, logTrend));
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(recipe.getId());
+            }
+        }
+    }
+
+    public void remove(Long recipeId) {
+        synchronized (writeLock) {
+            Boards current = boards;
+            current.replace(current.recipes.get(recipeId), null);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(recipeId);
+            }
+        }
+    }
+
+    public void rate(Long recipeId, Double rating, long reviewCount) {
+        synchronized (writeLock) {
+            Boards current = boards;
+            Ranked previous = current.recipes.get(recipeId);
+            if (previous != null) {
+                current.replace(previous, previous.withRating(rating != null ? rating : 0.0, reviewCount));
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(recipeId);
+                }
+            }
+        }
+    }
+
+    public void recordReview(Long recipeId, long atMillis) {
+        synchronized (writeLock) {
+            Boards current = boards;
+            Ranked previous = current.recipes.get(recipeId);
+            if (previous != null) {
+                double logTrend = logAddExp(previous.logTrend, lambda * (atMillis - epochMillis));
+                current.replace(previous, previous.withLogTrend(logTrend));
+            }
+        }
+    }
+
+    /**
+     * Reloads recipe details from {@code source} into fresh boards and swaps them in.
+     * Trending scores live only here, so they're carried over, and recipes changed while
+     * the source was read keep their live entries.
+     */
+    public long rebuild(Consumer<Consumer<RecipeDTO>> source) {
+        synchronized (rebuildLock) {
+            Boards rebuilt = new Boards();
+            synchronized (writeLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            try {
+                source.accept(recipe -> rebuilt.replace(rebuilt.recipes.get(recipe.getId()),
+                        new Ranked(recipe, Double.NEGATIVE_INFINITY)));
+                synchronized (writeLock) {
+                    Boards current = boards;
+                    for (Ranked ranked : current.recipes.values()) {
+                        Ranked fresh = rebuilt.recipes.get(ranked.recipeId);
+                        if (fresh != null && ranked.logTrend != Double.NEGATIVE_INFINITY) {
+                            rebuilt.replace(fresh, fresh.withLogTrend(ranked.logTrend));
+                        }
+                    }
+                    for (Long recipeId : changedDuringRebuild) {
+                        rebuilt.replace(rebuilt.recipes.get(recipeId), current.recipes.get(recipeId));
+                    }
+                    boards = rebuilt;
+                }
+            } finally {
+                synchronized (writeLock) {
+                    changedDuringRebuild = null;
+                }
+            }
+            return rebuilt.recipes.size();
+        }
+    }
+
+    public List<LeaderboardEntryDTO> topRated(String category, int limit) {
+        List<LeaderboardEntryDTO> results = new ArrayList<>(limit);
+        NavigableSet<Ranked> board = boards.byRating.get(key(category));
+        if (board == null) {
+            return results;
+        }
+        Iterator<Ranked> iterator = board.iterator();
+        while (iterator.hasNext() && results.size() < limit) {
+            Ranked ranked = iterator.next();
+            results.add(ranked.toDto(ranked.rating));
+        }
+        return results;
+    }
+
+    public List<LeaderboardEntryDTO> trending(String category, int limit, long nowMillis) {
+        List<LeaderboardEntryDTO> results = new ArrayList<>(limit);
+        NavigableSet<Ranked> board = boards.byTrend.get(key(category));
+        if (board == null) {
+            return results;
+        }
+        double logNow = lambda * (nowMillis - epochMillis);
+        Iterator<Ranked> iterator = board.iterator();
+        while (iterator.hasNext() && results.size() < limit) {
+            Ranked ranked = iterator.next();
+            results.add(ranked.toDto(Math.exp(ranked.logTrend - logNow)));
+        }
+        return results;
+    }
+
+    private static String key(String category) {
+        return category == null ? ALL : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // log(e^a + e^b) without overflowing
+    private static double logAddExp(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static final class Boards {
+        private final Map<Long, Ranked> recipes = new HashMap<>();
+        private final Map<String, NavigableSet<Ranked>> byRating = new ConcurrentHashMap<>();
+        private final Map<String, NavigableSet<Ranked>> byTrend = new ConcurrentHashMap<>();
+
+        private void replace(Ranked previous, Ranked next) {
+            if (previous != null) {
+                recipes.remove(previous.recipeId);
+                for (String key : previous.keys()) {
+                    byRating.get(key).remove(previous);
+                    if (previous.logTrend != Double.NEGATIVE_INFINITY) {
+                        byTrend.get(key).remove(previous);
+                    }
+                }
+            }
+            if (next != null) {
+                recipes.put(next.recipeId, next);
+                for (String key : next.keys()) {
+                    byRating.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(BY_RATING)).add(next);
+                    if (next.logTrend != Double.NEGATIVE_INFINITY) {
+                        byTrend.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(BY_TREND)).add(next);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Ranked {
+        private final long recipeId;
+        private final String title;
+        private final String category;
+        private final double rating;
+        private final long reviewCount;
+        private final String imageUrl;
+        private final double logTrend;
+
+        private Ranked(RecipeDTO recipe, double logTrend) {
+            this(recipe.getId(), recipe.getTitle(), recipe.getCategory(),
+                    recipe.getRating() != null ? recipe.getRating() : 0.0, recipe.getReviewCount(),
+                    recipe.getImageUrls() == null || recipe.getImageUrls().isEmpty()
+                            ? null : recipe.getImageUrls().iterator().next(),
+                    logTrend);
+        }
+
+        private Ranked(long recipeId, String title, String category, double rating, long reviewCount,
+                       String imageUrl, double logTrend) {
+            this.recipeId = recipeId;
+            this.title = title;
+            this.category = category;
+            this.rating = rating;
+            this.reviewCount = reviewCount;
+            this.imageUrl = imageUrl;
+            this.logTrend = logTrend;
+        }
+
+        private Ranked withLogTrend(double logTrend) {
+            return new Ranked(recipeId, title, category, rating, reviewCount, imageUrl, logTrend);
+        }
+
+        private Ranked withRating(double rating, long reviewCount) {
+            return new Ranked(recipeId, title, category, rating, reviewCount, imageUrl, logTrend);
+        }
+
+        private List<String> keys() {
+            List<String> keys = new ArrayList<>(2);
+            keys.add(ALL);
+            if (category != null && !category.trim().isEmpty()) {
+                keys.add(key(category));
+            }
+            return keys;
+        }
+
+        private LeaderboardEntryDTO toDto(double score) {
+            return new LeaderboardEntryDTO(recipeId, title, category, rating, reviewCount, imageUrl, score);
+        }
+    }
+}
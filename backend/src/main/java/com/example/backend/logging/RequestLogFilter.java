@@ -0,0 +1,55 @@
+package com.example.backend.logging;
+
+import com.example.backend.metrics.SqlStatementCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Access log for a sample of requests. Slow requests and server errors are always
+ * logged; the rest with probability {@code logging.request.sample-rate}. The values are
+ * structured arguments, so they become JSON fields as well as part of the message.
+ */
+@Component
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLogFilter.class);
+
+    @Value("${logging.request.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${logging.request.slow-ms:1000}")
+    private long slowMillis;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        long sqlBefore = SqlStatementCounter.current();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long millis = (System.nanoTime() - startedAt) / 1_000_000;
+            int status = response.getStatus();
+            boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+            if ((sampled || millis >= slowMillis || status >= 500) && log.isInfoEnabled()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.info("{} {} {} {} {} {}", kv("method", request.getMethod()), kv("path", request.getRequestURI()),
+                        kv("route", pattern != null ? pattern : "UNKNOWN"), kv("status", status),
+                        kv("durationMs", millis), kv("sqlStatements", SqlStatementCounter.current() - sqlBefore));
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.mapper;
+
+import com.example.backend.dto.MealDTO;
+import com.example.backend.entity.Meal;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface MealMapper {
+
+    MealDTO toDto(Meal meal);
+
+    List<MealDTO> toDtoList(List<Meal> meals);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(Meal source, @MappingTarget Meal target);
+}
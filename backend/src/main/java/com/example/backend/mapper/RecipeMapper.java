@@ -0,0 +1,35 @@
+package com.example.backend.mapper;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface RecipeMapper {
+
+    RecipeDTO toDto(Recipe recipe);
+
+    List<RecipeDTO> toDtoList(List<Recipe> recipes);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "imageUrls", ignore = true)
+    @Mapping(target = "reviewCount", ignore = true)
+    @Mapping(target = "ratingSum", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "parsedIngredients", ignore = true)
+    Recipe toEntity(RecipeDTO recipeDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "imageUrls", ignore = true)
+    @Mapping(target = "mediaType", ignore = true)
+    @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "reviewCount", ignore = true)
+    @Mapping(target = "ratingSum", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "parsedIngredients", ignore = true)
+    void updateEntity(RecipeDTO recipeDTO, @MappingTarget Recipe recipe);
+}
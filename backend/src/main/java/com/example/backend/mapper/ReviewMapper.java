@@ -0,0 +1,36 @@
+package com.example.backend.mapper;
+
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.entity.Review;
+import com.example.backend.repo.ReviewListItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ReviewMapper {
+
+    ReviewDTO toDto(Review review);
+
+    List<ReviewDTO> toDtoList(List<Review> reviews);
+
+    @Mapping(target = "version", ignore = true)
+    ReviewDTO toDto(ReviewListItem item);
+
+    List<ReviewDTO> toFeedDtoList(List<ReviewListItem> items);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Review toEntity(ReviewDTO reviewDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    // an update that doesn't mention the recipe keeps the review where it is
+    @Mapping(target = "recipeId", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateEntity(ReviewDTO reviewDTO, @MappingTarget Review review);
+}
@@ -0,0 +1,25 @@
+package com.example.backend.mapper;
+
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.entity.Technique;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface TechniqueMapper {
+
+    TechniqueDTO toDto(Technique technique);
+
+    List<TechniqueDTO> toDtoList(List<Technique> techniques);
+
+    @Mapping(target = "techniqueId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Technique toEntity(TechniqueDTO techniqueDTO);
+
+    @Mapping(target = "techniqueId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(TechniqueDTO techniqueDTO, @MappingTarget Technique technique);
+}
@@ -0,0 +1,203 @@
+package com.example.backend.media;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates resized variants of stored originals on a small worker pool. The queue is
+ * bounded; when it's full the submitting thread does the work itself, which slows
+ * uploads down instead of piling up unbounded work.
+ */
+@Component
+public class ImagePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePipeline.class);
+
+    private static final String JPEG = "jpg";
+    private static final String WEBP = "webp";
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Value("${media.workers:2}")
+    private int workers;
+
+    @Value("${media.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("#{'${media.variant-widths:320,640,1280}'.split(',')}")
+    private List<Integer> variantWidths;
+
+    @Value("${media.display-width:1280}")
+    private int displayWidth;
+
+    @Value("${media.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    private ThreadPoolExecutor executor;
+
+    // WebP needs an ImageIO plugin on the classpath; without one only JPEG variants are made
+    private boolean webpAvailable;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        webpAvailable = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues variant generation for an original. {@code onReady} gets the URL clients
+     * should display once the variants exist (the original's URL if it can't be decoded).
+     */
+    public void submit(StoredImage image, Consumer<String> onReady) {
+        executor.execute(() -> onReady.accept(process(image)));
+    }
+
+    public int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    String process(StoredImage image) {
+        try {
+            BufferedImage original = ImageIO.read(image.getPath().toFile());
+            if (original == null) {
+                return image.getUrl();
+            }
+            String displayUrl = image.getUrl();
+            int largestWidth = 0;
+            for (int width : variantWidths) {
+                // never upscale; the original already covers anything wider than itself
+                if (width >= original.getWidth()) {
+                    continue;
+                }
+                BufferedImage resized = null;
+                Path jpeg = imageStore.variantPath(image.getHash(), width, JPEG);
+                if (!Files.exists(jpeg)) {
+                    resized = resize(original, width);
+                    writeAtomically(resized, jpeg, JPEG);
+                }
+                Path webp = imageStore.variantPath(image.getHash(), width, WEBP);
+                if (webpAvailable && !Files.exists(webp)) {
+                    writeAtomically(resized != null ? resized : resize(original, width), webp, WEBP);
+                }
+                if (width <= displayWidth && width > largestWidth) {
+                    largestWidth = width;
+                    displayUrl = imageStore.variantUrl(image.getHash(), width, JPEG);
+                }
+            }
+            return displayUrl;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for {}, serving the original", image.getUrl(), e);
+            return image.getUrl();
+        }
+    }
+
+    private void writeAtomically(BufferedImage image, Path target, String format) throws IOException {
+        Path tempFile = target.resolveSibling("." + target.getFileName() + ".tmp");
+        try {
+            write(image, tempFile, format);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void write(BufferedImage image, Path target, String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Halves the image until it's within 2x of the target, then does one bilinear step;
+     * much better quality than a single large bilinear scale and far cheaper than bicubic.
+     */
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = toRgb(source);
+        int width = current.getWidth();
+        int height = current.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // JPEG can't carry alpha, so flatten everything onto plain RGB first
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, source.getWidth(), source.getHeight());
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        return rgb;
+    }
+}
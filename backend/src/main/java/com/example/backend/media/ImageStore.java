@@ -0,0 +1,159 @@
+package com.example.backend.media;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for uploaded images. Originals are stored as
+ * {@code <sha256>.<ext>} and resized variants as {@code <sha256>-<width>.<format>},
+ * so identical uploads share one set of files.
+ */
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^([0-9a-f]{64})[.-].*");
+
+    private static final Set<String> IMAGE_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "jpg", "jpeg", "png", "gif", "bmp", "webp"));
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    private Path uploadPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadPath = Paths.get(uploadDir);
+        Files.createDirectories(uploadPath);
+    }
+
+    /**
+     * Streams the upload to a temp file while hashing it, then moves it to its
+     * content address. Nothing is held in memory beyond the copy buffer.
+     */
+    public StoredImage store(MultipartFile image) throws IOException {
+        String extension = extensionOf(image.getOriginalFilename());
+        Path tempFile = uploadPath.resolve("." + UUID.randomUUID() + ".tmp");
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+            Files.copy(in, tempFile);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        String hash = toHex(digest.digest());
+        Path target = uploadPath.resolve(hash + "." + extension);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(tempFile);
+            return new StoredImage(hash, extension, target, false);
+        }
+        // same bytes racing in twice just renames over an identical file
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        return new StoredImage(hash, extension, target, true);
+    }
+
+    public Path getUploadPath() {
+        return uploadPath;
+    }
+
+    public Path variantPath(String hash, int width, String format) {
+        return uploadPath.resolve(hash + "-" + width + "." + format);
+    }
+
+    public String variantUrl(String hash, int width, String format) {
+        return URL_PREFIX + hash + "-" + width + "." + format;
+    }
+
+    /**
+     * Hash of a content-addressed image URL (original or variant), null for legacy names.
+     */
+    public String hashOf(String imageUrl) {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(fileName(imageUrl));
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Removes the file behind the URL, and for content-addressed images the
+     * original and every variant that shares its hash.
+     */
+    public long delete(String imageUrl) throws IOException {
+        String hash = hashOf(imageUrl);
+        if (hash == null) {
+            return deleteFile(uploadPath.resolve(fileName(imageUrl)));
+        }
+        thumbnailCache.evictPrefix(hash);
+        long bytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath, hash + "*")) {
+            for (Path file : files) {
+                bytes += deleteFile(file);
+            }
+        }
+        return bytes;
+    }
+
+    private static long deleteFile(Path file) throws IOException {
+        long size = Files.exists(file) ? Files.size(file) : 0;
+        Files.deleteIfExists(file);
+        return size;
+    }
+
+    private static String fileName(String imageUrl) {
+        return imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot >= 0) {
+                String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (IMAGE_EXTENSIONS.contains(extension)) {
+                    return extension.equals("jpeg") ? "jpg" : extension;
+                }
+            }
+        }
+        return "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
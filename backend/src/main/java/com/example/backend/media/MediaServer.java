@@ -0,0 +1,176 @@
+package com.example.backend.media;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves files from the upload directory. Small content-addressed files come out of
+ * {@link ThumbnailCache}; everything else is handed to Tomcat's sendfile when the
+ * connector supports it, falling back to {@link FileChannel#transferTo}.
+ */
+@Component
+public class MediaServer {
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String SHORT_LIVED = "public, max-age=3600";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    public void serve(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(fileName);
+        BasicFileAttributes attributes;
+        try {
+            attributes = file == null ? null : Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        boolean contentAddressed = imageStore.hashOf(fileName) != null;
+        String etag = contentAddressed
+                ? "\"" + fileName + "\""
+                : "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed ? IMMUTABLE : SHORT_LIVED);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .map(Object::toString).orElse("application/octet-stream"));
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            // multi-range requests are rare for images; answering them with the full body is allowed
+            if (matcher.matches()) {
+                long[] bounds = parseRange(matcher.group(1), matcher.group(2), length);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (contentAddressed && thumbnailCache.accepts(length)) {
+            byte[] bytes = thumbnailCache.get(fileName);
+            if (bytes == null) {
+                bytes = Files.readAllBytes(file);
+                thumbnailCache.put(fileName, bytes);
+            }
+            response.getOutputStream().write(bytes, (int) start, (int) count);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file straight from the page cache to the socket once we return
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // older uploads keep the client's file name after a UUID, spaces and all, so only a path separator or a
+    // leading dot (parent references, the store's temp files) is refused before the containment check
+    private Path resolve(String fileName) {
+        if (fileName == null || fileName.isEmpty() || fileName.startsWith(".")
+                || fileName.indexOf('/') >= 0 || fileName.indexOf('\\') >= 0) {
+            return null;
+        }
+        try {
+            Path uploadPath = imageStore.getUploadPath().toAbsolutePath().normalize();
+            Path file = uploadPath.resolve(fileName).normalize();
+            return file.startsWith(uploadPath) ? file : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static long[] parseRange(String first, String last, long length) {
+        if (first.isEmpty() && last.isEmpty()) {
+            return null;
+        }
+        long start;
+        long end;
+        if (first.isEmpty()) {
+            // suffix range: the last N bytes
+            long suffix = Long.parseLong(last);
+            if (suffix == 0) {
+                return null;
+            }
+            start = Math.max(0, length - suffix);
+            end = length - 1;
+        } else {
+            start = Long.parseLong(first);
+            end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+        }
+        if (start >= length || start > end) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+}
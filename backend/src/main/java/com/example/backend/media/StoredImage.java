@@ -0,0 +1,23 @@
+package com.example.backend.media;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * An original upload on disk, named by the SHA-256 of its bytes.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredImage {
+    private final String hash;
+    private final String extension;
+    private final Path path;
+    // false when identical bytes were already stored and this upload was dropped
+    private final boolean newlyStored;
+
+    public String getUrl() {
+        return ImageStore.URL_PREFIX + hash + "." + extension;
+    }
+}
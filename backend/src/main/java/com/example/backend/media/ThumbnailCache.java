@@ -0,0 +1,78 @@
+package com.example.backend.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU of small, hot image files held in memory, bounded by total bytes rather than
+ * entry count. Only content-addressed files go in, so an entry never goes stale;
+ * it's only dropped when the image is deleted or pushed out.
+ */
+@Component
+public class ThumbnailCache {
+
+    @Value("${media.serve.cache-max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${media.serve.cache-max-file-bytes:262144}")
+    private long maxFileBytes;
+
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long totalBytes;
+
+    private long hits;
+
+    private long misses;
+
+    public boolean accepts(long fileSize) {
+        return fileSize <= maxFileBytes && fileSize <= maxBytes;
+    }
+
+    public synchronized byte[] get(String fileName) {
+        byte[] bytes = entries.get(fileName);
+        if (bytes == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return bytes;
+    }
+
+    public synchronized void put(String fileName, byte[] bytes) {
+        byte[] previous = entries.put(fileName, bytes);
+        totalBytes += bytes.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void evictPrefix(String prefix) {
+        Iterator<Map.Entry<String, byte[]>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, byte[]> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                totalBytes -= entry.getValue().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
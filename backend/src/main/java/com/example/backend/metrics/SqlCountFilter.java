@@ -0,0 +1,50 @@
+package com.example.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code http.server.requests.sql},
+ * tagged like Spring's own request timer.
+ */
+@Component
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    static final String START_ATTRIBUTE = SqlCountFilter.class.getName() + ".start";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = SqlStatementCounter.current();
+        request.setAttribute(START_ATTRIBUTE, start);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.sql")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(SqlStatementCounter.current() - start);
+        }
+    }
+
+    static long statementsSoFar(HttpServletRequest request) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        return start == null ? -1 : SqlStatementCounter.current() - (Long) start;
+    }
+}
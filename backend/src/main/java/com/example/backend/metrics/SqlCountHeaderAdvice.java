@@ -0,0 +1,40 @@
+package com.example.backend.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Dev aid: adds an {@code X-SQL-Count} header with the statements the request ran
+ * before its body was written. Enabled by {@code metrics.sql-count-header=true}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "metrics.sql-count-header", havingValue = "true")
+public class SqlCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            long statements = SqlCountFilter.statementsSoFar(((ServletServerHttpRequest) request).getServletRequest());
+            if (statements >= 0) {
+                response.getHeaders().set(HEADER, Long.toString(statements));
+            }
+        }
+        return body;
+    }
+}
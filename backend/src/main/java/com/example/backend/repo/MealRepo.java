@@ -2,6 +2,26 @@ package com.example.backend.repo;
 
 import com.example.backend.entity.Meal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface MealRepo extends JpaRepository<Meal, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Meal> findAll();
+
+    // plans overlapping [from, to]; a plan counts on both its start and end day
+    @Query("select m from Meal m where m.startDate <= :to and m.endDate >= :from order by m.startDate, m.id")
+    List<Meal> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select m from Meal m where m.endDate >= :from")
+    List<Meal> findEndingOnOrAfter(@Param("from") LocalDate from);
 }
@@ -1,7 +1,78 @@
 package com.example.backend.repo;
 
 import com.example.backend.entity.Recipe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
 public interface RecipeRepo extends JpaRepository<Recipe, Long> {
+
+    // keyset page: everything after the last id the client has seen
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+
+    // same keyset walk for exports and reindexing, kept out of the query cache
+    @Query("select r from Recipe r where r.id > :lastId order by r.id")
+    List<Recipe> findBatchAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // join fetching ingredients and steps together would return their cross product.
+    // Listings load each collection with its own query into the same persistence context instead.
+    // The whole catalogue stays out of the query cache: the response cache already holds the listing,
+    // and a cached id list longer than the entity region would come back one row at a time.
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.ingredients order by r.id")
+    List<Recipe> findAllWithIngredients();
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.steps")
+    List<Recipe> fetchAllSteps();
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.imageUrls")
+    List<Recipe> fetchAllImageUrls();
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.ingredients where r.id in :ids")
+    List<Recipe> fetchIngredients(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.parsedIngredients where r.id in :ids")
+    List<Recipe> fetchParsedIngredients(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.steps where r.id in :ids")
+    List<Recipe> fetchSteps(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("select distinct r from Recipe r left join fetch r.imageUrls where r.id in :ids")
+    List<Recipe> fetchImageUrls(@Param("ids") Collection<Long> ids);
+
+    @Query("select count(r) from Recipe r join r.imageUrls url where r.id <> :id and url like :urlPattern")
+    long countOtherRecipesUsingImage(@Param("id") Long id, @Param("urlPattern") String urlPattern);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Recipe r set "
+            + "r.reviewCount = (select count(v) from Review v where v.recipeId = r.id), "
+            + "r.ratingSum = (select coalesce(sum(v.rating), 0) from Review v where v.recipeId = r.id)")
+    int recountReviews();
+
+    // id, reviewCount, ratingSum of every reviewed recipe
+    @Query("select r.id, r.reviewCount, r.ratingSum from Recipe r where r.reviewCount > 0")
+    List<Object[]> findReviewAggregates();
+
+    // ingredients and image urls in one join; steps come in through @BatchSize
+    @EntityGraph(attributePaths = {"ingredients", "imageUrls"})
+    Optional<Recipe> findDetailedById(Long id);
 }
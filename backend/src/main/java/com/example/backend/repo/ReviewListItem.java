@@ -0,0 +1,22 @@
+package com.example.backend.repo;
+
+import java.time.Instant;
+
+/**
+ * Column projection for review listings: the feed queries select exactly these
+ * columns, with no entity hydration or second-level cache traffic.
+ */
+public interface ReviewListItem {
+
+    Long getId();
+
+    String getName();
+
+    String getComment();
+
+    Integer getRating();
+
+    Long getRecipeId();
+
+    Instant getCreatedAt();
+}
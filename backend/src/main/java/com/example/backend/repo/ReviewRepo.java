@@ -1,7 +1,54 @@
 package com.example.backend.repo;
 
 import com.example.backend.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface ReviewRepo extends JpaRepository<Review, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Review> findAll();
+
+    // keyset feed, newest first: everything strictly before the (createdAt, id) the client last saw.
+    // Walks idx_review_created; the rating range is checked on the rows it visits
+    @Query("select v.id as id, v.name as name, v.comment as comment, v.rating as rating, "
+            + "v.recipeId as recipeId, v.createdAt as createdAt from Review v "
+            + "where v.createdAt >= :since and v.rating between :minRating and :maxRating "
+            + "and (v.createdAt < :beforeCreatedAt or (v.createdAt = :beforeCreatedAt and v.id < :beforeId)) "
+            + "order by v.createdAt desc, v.id desc")
+    List<ReviewListItem> findFeed(@Param("since") Instant since,
+                                  @Param("minRating") int minRating, @Param("maxRating") int maxRating,
+                                  @Param("beforeCreatedAt") Instant beforeCreatedAt, @Param("beforeId") long beforeId,
+                                  Pageable pageable);
+
+    // same feed for one recipe, on idx_review_recipe_created
+    @Query("select v.id as id, v.name as name, v.comment as comment, v.rating as rating, "
+            + "v.recipeId as recipeId, v.createdAt as createdAt from Review v "
+            + "where v.recipeId = :recipeId and v.createdAt >= :since and v.rating between :minRating and :maxRating "
+            + "and (v.createdAt < :beforeCreatedAt or (v.createdAt = :beforeCreatedAt and v.id < :beforeId)) "
+            + "order by v.createdAt desc, v.id desc")
+    List<ReviewListItem> findFeedForRecipe(@Param("recipeId") Long recipeId, @Param("since") Instant since,
+                                           @Param("minRating") int minRating, @Param("maxRating") int maxRating,
+                                           @Param("beforeCreatedAt") Instant beforeCreatedAt, @Param("beforeId") long beforeId,
+                                           Pageable pageable);
+
+    // recipe id and timestamp of recent linked reviews, oldest first
+    @Query("select v.recipeId, v.createdAt from Review v where v.createdAt >= :since and v.recipeId is not null "
+            + "order by v.createdAt")
+    List<Object[]> findRecentActivity(@Param("since") Instant since);
+
+    @Modifying
+    @Query("delete from Review v where v.recipeId = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") Long recipeId);
 }
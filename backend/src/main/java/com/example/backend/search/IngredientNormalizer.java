@@ -0,0 +1,71 @@
+package com.example.backend.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free-text ingredient lines ("2 cups of plain flour, sifted") into a
+ * comparable name ("plain flour") so recipes and pantries share one vocabulary.
+ */
+public final class IngredientNormalizer {
+
+    private static final Pattern PARENTHESES = Pattern.compile("\\([^)]*\\)");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Set<String> UNITS = new HashSet<>(Arrays.asList(
+            "cup", "cups", "c", "tablespoon", "tablespoons", "tbsp", "tbs", "teaspoon", "teaspoons", "tsp",
+            "gram", "grams", "g", "kilogram", "kilograms", "kg", "milliliter", "milliliters", "millilitre",
+            "millilitres", "ml", "liter", "liters", "litre", "litres", "l", "ounce", "ounces", "oz", "pound",
+            "pounds", "lb", "lbs", "pinch", "pinches", "dash", "clove", "cloves", "slice", "slices", "can",
+            "cans", "pack", "packet", "handful", "bunch", "piece", "pieces", "sprig", "sprigs", "stick", "sticks"));
+
+    private static final Set<String> FILLER_WORDS = new HashSet<>(Arrays.asList(
+            "of", "a", "an", "the", "some", "fresh", "large", "small", "medium", "chopped", "diced", "sliced",
+            "minced", "to", "taste", "optional", "about", "and", "or"));
+
+    private IngredientNormalizer() {
+    }
+
+    public static String normalize(String ingredient) {
+        if (ingredient == null) {
+            return "";
+        }
+        String text = ingredient.toLowerCase(Locale.ROOT);
+        // anything after a comma is preparation ("onion, finely chopped")
+        int comma = text.indexOf(',');
+        if (comma >= 0) {
+            text = text.substring(0, comma);
+        }
+        text = PARENTHESES.matcher(text).replaceAll(" ");
+        text = NON_LETTERS.matcher(text).replaceAll(" ");
+
+        StringBuilder name = new StringBuilder();
+        for (String word : WHITESPACE.split(text.trim())) {
+            if (word.isEmpty() || UNITS.contains(word) || FILLER_WORDS.contains(word)) {
+                continue;
+            }
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(singular(word));
+        }
+        return name.toString();
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.PantryMatchDTO;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.event.RecipeChangedEvent;
+import com.example.backend.event.RecipesImportedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * "What can I cook": every normalized ingredient name gets an integer id and every
+ * recipe is held as a bitmap of those ids, so matching a pantry is an AND/popcount
+ * per recipe, scanned in parallel.
+ */
+@Component
+public class PantryMatchIndex {
+
+    private static final Comparator<Match> BEST_FIRST = Comparator
+            .comparingDouble(Match::coverage).reversed()
+            .thenComparing(Comparator.comparingInt((Match match) -> match.matched).reversed())
+            .thenComparingLong(match -> match.entry.recipeId);
+
+    // the dictionary only grows; ids stay valid across rebuilds
+    private final Map<String, Integer> ingredientIds = new ConcurrentHashMap<>();
+
+    private final Map<Integer, String> ingredientNames = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextIngredientId = new AtomicInteger();
+
+    private volatile Map<Long, RecipeEntry> recipes = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+
+    // while a rebuild runs, changes also land here (null for a delete) and are replayed onto the
+    // new table before it's swapped in, so the rebuild's older rows don't overwrite or revive them
+    private Map<Long, RecipeDTO> changedDuringRebuild;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getRecipeId());
+        } else {
+            put(event.getRecipe());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        for (RecipeDTO recipe : event.getRecipes()) {
+            put(recipe);
+        }
+    }
+
+    public void put(RecipeDTO recipe) {
+        synchronized (writeLock) {
+            put(recipes, recipe);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(recipe.getId(), recipe);
+            }
+        }
+    }
+
+    public void remove(Long recipeId) {
+        synchronized (writeLock) {
+            recipes.remove(recipeId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(recipeId, null);
+            }
+        }
+    }
+
+    /**
+     * Builds a fresh recipe table from {@code source} and swaps it in, so matches keep
+     * running against the old table until the new one is complete. Changes that arrive
+     * meanwhile are applied to both.
+     */
+    public long rebuild(Consumer<Consumer<RecipeDTO>> source) {
+        synchronized (rebuildLock) {
+            Map<Long, RecipeEntry> rebuilt = new ConcurrentHashMap<>();
+            synchronized (writeLock) {
+                changedDuringRebuild = new LinkedHashMap<>();
+            }
+            try {
+                source.accept(recipe -> put(rebuilt, recipe));
+                synchronized (writeLock) {
+                    for (Map.Entry<Long, RecipeDTO> change : changedDuringRebuild.entrySet()) {
+                        if (change.getValue() == null) {
+                            rebuilt.remove(change.getKey());
+                        } else {
+                            put(rebuilt, change.getValue());
+                        }
+                    }
+                    recipes = rebuilt;
+                }
+            } finally {
+                synchronized (writeLock) {
+                    changedDuringRebuild = null;
+                }
+            }
+            return rebuilt.size();
+        }
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    public List<PantryMatchDTO> match(Collection<String> pantry, int limit, double minCoverage) {
+        RoaringBitmap pantryBits = new RoaringBitmap();
+        for (String ingredient : pantry) {
+            // ingredients no recipe uses can't raise anyone's coverage, so they're skipped
+            Integer id = ingredientIds.get(IngredientNormalizer.normalize(ingredient));
+            if (id != null) {
+                pantryBits.add(id);
+            }
+        }
+        if (pantryBits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Match> best = recipes.values().parallelStream()
+                .map(entry -> new Match(entry, RoaringBitmap.andCardinality(pantryBits, entry.ingredients)))
+                .filter(match -> match.matched > 0 && match.coverage() >= minCoverage)
+                .collect(topK(limit));
+
+        List<PantryMatchDTO> results = new ArrayList<>(best.size());
+        for (Match match : best) {
+            results.add(toDto(match, pantryBits));
+        }
+        return results;
+    }
+
+    private void put(Map<Long, RecipeEntry> target, RecipeDTO recipe) {
+        RoaringBitmap bits = new RoaringBitmap();
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                String name = IngredientNormalizer.normalize(ingredient);
+                if (!name.isEmpty()) {
+                    bits.add(ingredientId(name));
+                }
+            }
+        }
+        if (bits.isEmpty()) {
+            target.remove(recipe.getId());
+            return;
+        }
+        bits.runOptimize();
+        target.put(recipe.getId(), new RecipeEntry(recipe.getId(), recipe.getTitle(), bits));
+    }
+
+    private int ingredientId(String name) {
+        return ingredientIds.computeIfAbsent(name, key -> {
+            int id = nextIngredientId.getAndIncrement();
+            ingredientNames.put(id, key);
+            return id;
+        });
+    }
+
+    private PantryMatchDTO toDto(Match match, RoaringBitmap pantryBits) {
+        List<String> missing = new ArrayList<>();
+        RoaringBitmap.andNot(match.entry.ingredients, pantryBits)
+                .forEach((int id) -> missing.add(ingredientNames.get(id)));
+        return new PantryMatchDTO(match.entry.recipeId, match.entry.title, match.matched,
+                match.entry.total, match.coverage(), missing);
+    }
+
+    // each worker keeps a bounded heap of its best matches; the heaps are merged at the end
+    private static Collector<Match, PriorityQueue<Match>, List<Match>> topK(int k) {
+        return Collector.of(
+                () -> new PriorityQueue<>(BEST_FIRST.reversed()),
+                (heap, match) -> offer(heap, match, k),
+                (left, right) -> {
+                    for (Match match : right) {
+                        offer(left, match, k);
+                    }
+                    return left;
+                },
+                heap -> {
+                    List<Match> sorted = new ArrayList<>(heap);
+                    sorted.sort(BEST_FIRST);
+                    return sorted;
+                });
+    }
+
+    private static void offer(PriorityQueue<Match> heap, Match match, int k) {
+        if (heap.size() < k) {
+            heap.add(match);
+        } else if (BEST_FIRST.compare(match, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(match);
+        }
+    }
+
+    private static final class RecipeEntry {
+        private final long recipeId;
+        private final String title;
+        private final RoaringBitmap ingredients;
+        private final int total;
+
+        private RecipeEntry(long recipeId, String title, RoaringBitmap ingredients) {
+            this.recipeId = recipeId;
+            this.title = title;
+            this.ingredients = ingredients;
+            this.total = ingredients.getCardinality();
+        }
+    }
+
+    private static final class Match {
+        private final RecipeEntry entry;
+        private final int matched;
+
+        private Match(RecipeEntry entry, int matched) {
+            this.entry = entry;
+            this.matched = matched;
+        }
+
+        private double coverage() {
+            return (double) matched / entry.total;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipeSearchHitDTO;
+import com.example.backend.dto.RecipeSearchResultDTO;
+import com.example.backend.event.RecipeChangedEvent;
+import com.example.backend.event.RecipeRatedEvent;
+import com.example.backend.event.RecipesImportedEvent;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Embedded Lucene index over recipe text. Writes are visible to searches as soon as
+ * they're made (near-real-time reopen); they're committed to disk on a timer.
+ */
+@Component
+public class RecipeSearchIndex {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String INGREDIENTS = "ingredients";
+    private static final String STEPS = "steps";
+    private static final String CATEGORY = "category";
+    private static final String CATEGORY_TEXT = "category_text";
+    // doc values, so a new rating is written in place without re-indexing the recipe's text.
+    // NaN stands for no rating: every document carries the field, so an update always finds it
+    private static final String RATING = "rating_value";
+
+    // relative weight of a match in each field
+    private static final Map<String, Float> FIELD_BOOSTS = new LinkedHashMap<>();
+
+    static {
+        FIELD_BOOSTS.put(TITLE, 4f);
+        FIELD_BOOSTS.put(INGREDIENTS, 2f);
+        FIELD_BOOSTS.put(CATEGORY_TEXT, 2f);
+        FIELD_BOOSTS.put(DESCRIPTION, 1f);
+        FIELD_BOOSTS.put(STEPS, 0.5f);
+    }
+
+    private static final int MAX_FACETS = 50;
+
+    @Value("${search.index-dir}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+
+    // both are replaced when a failed rebuild is rolled back
+    private volatile IndexWriter writer;
+
+    private volatile SearcherManager searcherManager;
+
+    // facet ordinals are tied to a reader, so they're rebuilt only when the searcher reopens
+    private volatile FacetState facetState;
+
+    // guards the writer against a rebuild in progress; one rebuild runs at a time
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+
+    // while a rebuild runs, changes are held here (null for a delete) and applied on top of the
+    // rebuilt set, so the rebuild's older copy of a recipe can't double it, overwrite it or bring it back
+    private Map<Long, RecipeDTO> changedDuringRebuild;
+    private Map<Long, Double> ratedDuringRebuild;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    public void index(RecipeDTO recipe) {
+        indexAll(Collections.singletonList(recipe));
+    }
+
+    public void indexAll(Collection<RecipeDTO> recipes) {
+        try {
+            synchronized (writeLock) {
+                for (RecipeDTO recipe : recipes) {
+                    if (changedDuringRebuild != null) {
+                        changedDuringRebuild.put(recipe.getId(), recipe);
+                    } else {
+                        writer.updateDocument(new Term(ID, recipe.getId().toString()), toDocument(recipe));
+                    }
+                }
+                if (changedDuringRebuild != null) {
+                    // a refresh now would publish the half-built index
+                    return;
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(Long id) {
+        try {
+            synchronized (writeLock) {
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(id, null);
+                    return;
+                }
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getRecipeId());
+        } else {
+            index(event.getRecipe());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        indexAll(event.getRecipes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeRated(RecipeRatedEvent event) {
+        updateRating(event.getRecipeId(), event.getRating());
+    }
+
+    public void updateRating(Long id, Double rating) {
+        try {
+            synchronized (writeLock) {
+                if (ratedDuringRebuild != null) {
+                    ratedDuringRebuild.put(id, rating);
+                    return;
+                }
+                writeRating(id, rating);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRating(Long id, Double rating) throws IOException {
+        // until a document has the field, Lucene refuses the update; no document could match it then anyway
+        if (writer.getFieldNames().contains(RATING)) {
+            writer.updateDocValues(new Term(ID, id.toString()),
+                    new DoubleDocValuesField(RATING, rating != null ? rating : Double.NaN));
+        }
+    }
+
+    /**
+     * True when the index on disk was written before ratings moved to doc values, so it
+     * has to be rebuilt before rating updates can reach it.
+     */
+    public boolean isOutdated() {
+        return writer.getDocStats().numDocs > 0 && !writer.getFieldNames().contains(RATING);
+    }
+
+    /**
+     * Replaces the whole index with whatever {@code source} feeds in. The rebuild goes
+     * through the same writer, so searches keep seeing the old documents until the
+     * new set is refreshed in. Changes that arrive meanwhile are applied after it.
+     * If {@code source} fails, the writer is rolled back to the index as it was.
+     */
+    public long rebuild(Consumer<Consumer<RecipeDTO>> source) {
+        AtomicLong count = new AtomicLong();
+        synchronized (rebuildLock) {
+            try {
+                synchronized (writeLock) {
+                    // what's searchable now is what a failed rebuild rolls back to
+                    writer.commit();
+                    writer.deleteAll();
+                    changedDuringRebuild = new LinkedHashMap<>();
+                    ratedDuringRebuild = new LinkedHashMap<>();
+                }
+                boolean built = false;
+                try {
+                    source.accept(recipe -> {
+                        try {
+                            writer.addDocument(toDocument(recipe));
+                            count.incrementAndGet();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    built = true;
+                } finally {
+                    if (!built) {
+                        rollbackRebuild();
+                    }
+                    applyChangedDuringRebuild();
+                    if (!built) {
+                        searcherManager.maybeRefreshBlocking();
+                    }
+                }
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return count.get();
+    }
+
+    // rollback closes the writer, so a fresh one (and a searcher manager on it) takes over from the last
+    // commit. Writes are still held in changedDuringRebuild, so nothing reaches the closed writer
+    private void rollbackRebuild() throws IOException {
+        synchronized (writeLock) {
+            SearcherManager previous = searcherManager;
+            writer.rollback();
+            openWriter();
+            previous.close();
+        }
+    }
+
+    // also after a failed rebuild, so changes made in the meantime aren't lost with it
+    private void applyChangedDuringRebuild() throws IOException {
+        synchronized (writeLock) {
+            try {
+                for (Map.Entry<Long, RecipeDTO> change : changedDuringRebuild.entrySet()) {
+                    Term id = new Term(ID, change.getKey().toString());
+                    if (change.getValue() == null) {
+                        writer.deleteDocuments(id);
+                    } else {
+                        writer.updateDocument(id, toDocument(change.getValue()));
+                    }
+                }
+                for (Map.Entry<Long, Double> rating : ratedDuringRebuild.entrySet()) {
+                    writeRating(rating.getKey(), rating.getValue());
+                }
+            } finally {
+                changedDuringRebuild = null;
+                ratedDuringRebuild = null;
+            }
+        }
+    }
+
+    public int size() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:30000}")
+    public void commit() throws IOException {
+        synchronized (writeLock) {
+            // the rebuild commits once it's whole; a half-built index isn't worth keeping on disk
+            if (changedDuringRebuild != null) {
+                return;
+            }
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        }
+    }
+
+    public RecipeSearchResultDTO search(String text, String category, int page, int size) {
+        Query query = buildQuery(text, category);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                FacetsCollector facetsCollector = new FacetsCollector();
+                // in long, and never more than the index holds: a far-off page would otherwise overflow
+                // or size the hit queue for millions of entries
+                long from = (long) page * size;
+                int limit = (int) Math.min(from + size, Math.max(1, searcher.getIndexReader().maxDoc()));
+                TopDocs topDocs = FacetsCollector.search(searcher, query, limit, facetsCollector);
+
+                List<RecipeSearchHitDTO> hits = new ArrayList<>();
+                StoredFields storedFields = searcher.storedFields();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+                for (int i = (int) Math.min(from, scoreDocs.length); i < scoreDocs.length; i++) {
+                    int doc = scoreDocs[i].doc;
+                    hits.add(toHit(storedFields.document(doc), rating(leaves, doc), scoreDocs[i].score));
+                }
+                return new RecipeSearchResultDTO(topDocs.totalHits.value, hits,
+                        categoryCounts(searcher.getIndexReader(), facetsCollector));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document toDocument(RecipeDTO recipe) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(ID, recipe.getId().toString(), Field.Store.YES));
+        doc.add(new TextField(TITLE, nullToEmpty(recipe.getTitle()), Field.Store.YES));
+        doc.add(new TextField(DESCRIPTION, nullToEmpty(recipe.getDescription()), Field.Store.YES));
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                doc.add(new TextField(INGREDIENTS, nullToEmpty(ingredient), Field.Store.NO));
+            }
+        }
+        if (recipe.getSteps() != null) {
+            for (String step : recipe.getSteps()) {
+                doc.add(new TextField(STEPS, nullToEmpty(step), Field.Store.NO));
+            }
+        }
+        if (recipe.getCategory() != null && !recipe.getCategory().isEmpty()) {
+            doc.add(new StringField(CATEGORY, recipe.getCategory(), Field.Store.YES));
+            doc.add(new TextField(CATEGORY_TEXT, recipe.getCategory(), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(CATEGORY, recipe.getCategory()));
+        }
+        doc.add(new DoubleDocValuesField(RATING, recipe.getRating() != null ? recipe.getRating() : Double.NaN));
+        return facetsConfig.build(doc);
+    }
+
+    private static Double rating(List<LeafReaderContext> leaves, int doc) throws IOException {
+        LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+        NumericDocValues values = leaf.reader().getNumericDocValues(RATING);
+        if (values == null || !values.advanceExact(doc - leaf.docBase)) {
+            return null;
+        }
+        double rating = Double.longBitsToDouble(values.longValue());
+        return Double.isNaN(rating) ? null : rating;
+    }
+
+    private RecipeSearchHitDTO toHit(Document doc, Double rating, float score) {
+        return new RecipeSearchHitDTO(
+                Long.valueOf(doc.get(ID)),
+                doc.get(TITLE),
+                doc.get(DESCRIPTION),
+                doc.get(CATEGORY),
+                rating,
+                score);
+    }
+
+    /**
+     * Every query term has to match some field, exactly, as a prefix (for search-as-you-type)
+     * or within a small edit distance (for typos). Exact matches score highest.
+     */
+    private Query buildQuery(String text, String category) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        for (String term : terms) {
+            BooleanQuery.Builder termBuilder = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term fieldTerm = new Term(field.getKey(), term);
+                float boost = field.getValue();
+                termBuilder.add(new BoostQuery(new TermQuery(fieldTerm), boost * 3), BooleanClause.Occur.SHOULD);
+                termBuilder.add(new BoostQuery(new PrefixQuery(fieldTerm), boost * 1.5f), BooleanClause.Occur.SHOULD);
+                if (term.length() > 3) {
+                    int maxEdits = term.length() > 6 ? 2 : 1;
+                    termBuilder.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            builder.add(termBuilder.build(), BooleanClause.Occur.MUST);
+        }
+        if (category != null && !category.isEmpty()) {
+            builder.add(new TermQuery(new Term(CATEGORY, category)), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Map<String, Long> categoryCounts(IndexReader reader, FacetsCollector facetsCollector) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        SortedSetDocValuesReaderState state = facetState(reader);
+        if (state == null) {
+            return counts;
+        }
+        FacetResult result = new SortedSetDocValuesFacetCounts(state, facetsCollector)
+                .getTopChildren(MAX_FACETS, CATEGORY);
+        if (result != null) {
+            for (LabelAndValue labelAndValue : result.labelValues) {
+                counts.put(labelAndValue.label, labelAndValue.value.longValue());
+            }
+        }
+        return counts;
+    }
+
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current != null && current.reader == reader) {
+            return current.state;
+        }
+        synchronized (this) {
+            current = facetState;
+            if (current == null || current.reader != reader) {
+                SortedSetDocValuesReaderState state;
+                try {
+                    state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+                } catch (IllegalArgumentException e) {
+                    // nothing with a category has been indexed yet
+                    state = null;
+                }
+                current = new FacetState(reader, state);
+                facetState = current;
+            }
+            return current.state;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static final class FacetState {
+        private final IndexReader reader;
+        private final SortedSetDocValuesReaderState state;
+
+        private FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+            this.reader = reader;
+            this.state = state;
+        }
+    }
+}
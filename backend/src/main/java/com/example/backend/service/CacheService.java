@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CacheRegionStatsDTO;
+
+import java.util.List;
+
+public interface CacheService {
+
+    List<CacheRegionStatsDTO> getRegionStats();
+
+    String evictAll();
+}
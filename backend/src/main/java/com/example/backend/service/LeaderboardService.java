@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.LeaderboardEntryDTO;
+
+import java.util.List;
+
+public interface LeaderboardService {
+
+    List<LeaderboardEntryDTO> getTopRated(String category, Integer limit);
+
+    List<LeaderboardEntryDTO> getTrending(String category, Integer limit);
+}
@@ -3,6 +3,7 @@ package com.example.backend.service;
 import com.example.backend.dto.MealDTO;
 import com.example.backend.entity.Meal;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface MealService {
@@ -10,7 +11,9 @@ public interface MealService {
 
     List<MealDTO> getAllMeals();
 
-    boolean updateMeal(Long id, Meal updatedMeal);
+    List<MealDTO> getMealsInRange(LocalDate from, LocalDate to);
 
-    boolean deleteMeal(Long id);
+    boolean updateMeal(Long id, Meal updatedMeal, Long expectedVersion);
+
+    boolean deleteMeal(Long id, Long expectedVersion);
 }
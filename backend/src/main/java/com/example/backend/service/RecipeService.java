@@ -1,10 +1,13 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipePageDTO;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RecipeService {
 
@@ -12,7 +15,22 @@ public interface RecipeService {
 
     List<RecipeDTO> getAllRecipes();
 
-    RecipeDTO updateRecipe(Long id, RecipeDTO recipeDTO);
+    RecipePageDTO getRecipePage(String cursor, Integer size);
 
-    String deleteRecipe(Long id);
+    void streamAllRecipes(Consumer<RecipeDTO> consumer);
+
+    /**
+     * Replaces the recipe's editable fields. A non-null {@code expectedVersion} makes the
+     * write conditional: it throws {@link StaleVersionException} unless the recipe is still
+     * at that version. The returned recipe carries its new version.
+     */
+    RecipeDTO updateRecipe(Long id, RecipeDTO recipeDTO, Long expectedVersion);
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7386): members present in {@code patch} replace the
+     * recipe's, {@code null} clears them. Returns null when there's no such recipe.
+     */
+    RecipeDTO patchRecipe(Long id, JsonNode patch, Long expectedVersion);
+
+    String deleteRecipe(Long id, Long expectedVersion);
 }
@@ -0,0 +1,17 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface RecipeTransferService {
+
+    String FORMAT_NDJSON = "ndjson";
+    String FORMAT_CSV = "csv";
+
+    ImportResultDTO importRecipes(InputStream inputStream, String format) throws IOException;
+
+    void exportRecipes(OutputStream outputStream, String format) throws IOException;
+}
@@ -1,7 +1,9 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.ReviewPageDTO;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface ReviewService {
@@ -9,9 +11,14 @@ public interface ReviewService {
 
     List<ReviewDTO> getAllReviews();
 
-    String updateReview(Long id, ReviewDTO reviewDTO);
+    ReviewPageDTO getReviewFeed(Long recipeId, Integer minRating, Integer maxRating, Instant since,
+                                String cursor, Integer size);
 
-    String deleteReview(Long id);
+    String updateReview(Long id, ReviewDTO reviewDTO, Long expectedVersion);
+
+    String deleteReview(Long id, Long expectedVersion);
+
+    String rebuildRatingAggregates();
 }
 
 
@@ -0,0 +1,16 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PantryMatchDTO;
+import com.example.backend.dto.PantryRequestDTO;
+import com.example.backend.dto.RecipeSearchResultDTO;
+
+import java.util.List;
+
+public interface SearchService {
+
+    RecipeSearchResultDTO searchRecipes(String query, String category, Integer page, Integer size);
+
+    List<PantryMatchDTO> matchPantry(PantryRequestDTO pantryRequestDTO);
+
+    String reindexRecipes();
+}
@@ -0,0 +1,10 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ShoppingListDTO;
+
+import java.time.LocalDate;
+
+public interface ShoppingListService {
+
+    ShoppingListDTO buildShoppingList(LocalDate from, LocalDate to);
+}
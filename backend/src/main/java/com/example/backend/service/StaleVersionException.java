@@ -0,0 +1,23 @@
+package com.example.backend.service;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Objects;
+
+/**
+ * A conditional write named a version the row no longer has. Unlike a lost flush race
+ * this isn't retried: the client has to re-read and decide again.
+ */
+public class StaleVersionException extends ObjectOptimisticLockingFailureException {
+
+    public StaleVersionException(Class<?> entityType, Object id) {
+        super(entityType, id);
+    }
+
+    // a null expectation is an unconditional write and always passes
+    public static void check(Class<?> entityType, Object id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !Objects.equals(expectedVersion, currentVersion)) {
+            throw new StaleVersionException(entityType, id);
+        }
+    }
+}
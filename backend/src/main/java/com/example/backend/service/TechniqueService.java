@@ -9,7 +9,7 @@ public interface TechniqueService {
 
     List<TechniqueDTO> getAllTechniques();
 
-    String updateTechnique(TechniqueDTO techniqueDTO);
+    String updateTechnique(TechniqueDTO techniqueDTO, Long expectedVersion);
 
-    String deleteTechnique(Long techniqueId);
+    String deleteTechnique(Long techniqueId, Long expectedVersion);
 }
@@ -0,0 +1,52 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.CacheRegionStatsDTO;
+import com.example.backend.service.CacheService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class CacheServiceIMPL implements CacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStatsDTO> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        List<CacheRegionStatsDTO> regionStats = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regionStats.add(new CacheRegionStatsDTO(
+                        regionName,
+                        region.getHitCount(),
+                        region.getMissCount(),
+                        region.getPutCount(),
+                        region.getElementCountInMemory()));
+            }
+        }
+        return regionStats;
+    }
+
+    @Override
+    public String evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+        return "All cache regions evicted";
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.LeaderboardEntryDTO;
+import com.example.backend.leaderboard.RecipeLeaderboard;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.RecipeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class LeaderboardServiceIMPL implements LeaderboardService {
+
+    @Autowired
+    private RecipeLeaderboard recipeLeaderboard;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    @Value("${leaderboard.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${leaderboard.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${leaderboard.max-limit:50}")
+    private int maxLimit;
+
+    // a review this many half-lives old weighs under 1%
+    private static final int REPLAYED_HALF_LIVES = 7;
+
+    @Override
+    public List<LeaderboardEntryDTO> getTopRated(String category, Integer limit) {
+        return recipeLeaderboard.topRated(category, clamp(limit));
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> getTrending(String category, Integer limit) {
+        return recipeLeaderboard.trending(category, clamp(limit), System.currentTimeMillis());
+    }
+
+    // the boards only live in memory; trending is replayed from recent reviews, older ones have decayed away
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoards() {
+        recipeLeaderboard.rebuild(recipeService::streamAllRecipes);
+        Instant since = Instant.now().minus(Duration.ofMinutes((long) (halfLifeHours * 60 * REPLAYED_HALF_LIVES)));
+        for (Object[] activity : reviewRepo.findRecentActivity(since)) {
+            recipeLeaderboard.recordReview((Long) activity[0], ((Instant) activity[1]).toEpochMilli());
+        }
+    }
+
+    private int clamp(Integer limit) {
+        return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+    }
+}
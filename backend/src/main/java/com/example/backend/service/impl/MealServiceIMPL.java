@@ -1,12 +1,23 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.calendar.ActiveMealPlanCache;
 import com.example.backend.dto.MealDTO;
 import com.example.backend.entity.Meal;
+import com.example.backend.entity.PlannedRecipe;
+import com.example.backend.mapper.MealMapper;
 import com.example.backend.repo.MealRepo;
 import com.example.backend.service.MealService;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.util.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -17,40 +28,69 @@ public class MealServiceIMPL implements MealService {
     @Autowired
     private MealRepo mealRepository;
 
+    @Autowired
+    private MealMapper mealMapper;
+
+    @Autowired
+    private ActiveMealPlanCache activeMealPlanCache;
+
+    @Value("${meal.calendar.keep-past-days:31}")
+    private int keepPastDays;
+
     @Override
+    @Transactional
     public Meal saveMeal(Meal meal) {
-        return mealRepository.save(meal);
+        normalize(meal);
+        Meal savedMeal = mealRepository.save(meal);
+        MealDTO savedDTO = mealMapper.toDto(savedMeal);
+        AfterCommit.run(() -> activeMealPlanCache.put(savedDTO));
+        return savedMeal;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MealDTO> getAllMeals() {
         List<Meal> meals = mealRepository.findAll();
+        return mealMapper.toDtoList(meals);
+    }
 
-        List<MealDTO> mealDTOs = new ArrayList<>();
-        for (Meal meal : meals) {
-            MealDTO dto = new MealDTO();
-            dto.setId(meal.getId());
-            dto.setTitle(meal.getTitle());
-            dto.setDescription(meal.getDescription());
-            dto.setStartDate(meal.getStartDate());
-            dto.setEndDate(meal.getEndDate());
-            mealDTOs.add(dto);
+    @Override
+    @Transactional(readOnly = true)
+    public List<MealDTO> getMealsInRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("from must be on or before to");
+        }
+        // recent and upcoming plans are answered from memory; older windows take one indexed query
+        if (activeMealPlanCache.covers(from)) {
+            return activeMealPlanCache.overlapping(from, to);
         }
-        return mealDTOs;
+        return mealMapper.toDtoList(mealRepository.findOverlapping(from, to));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @Scheduled(cron = "${meal.calendar.refresh-cron:0 5 0 * * *}")
+    public void refreshActivePlans() {
+        // slides the in-memory window forward once a day
+        LocalDate windowStart = LocalDate.now().minusDays(keepPastDays);
+        activeMealPlanCache.load(windowStart,
+                () -> mealMapper.toDtoList(mealRepository.findEndingOnOrAfter(windowStart)));
     }
 
     @Override
-    public boolean updateMeal(Long id, Meal updatedMeal) {
+    @Transactional
+    public boolean updateMeal(Long id, Meal updatedMeal, Long expectedVersion) {
         Optional<Meal> mealData = mealRepository.findById(id);
 
         if(mealData.isPresent()) {
             Meal existingMeal = mealData.get();
-            existingMeal.setTitle(updatedMeal.getTitle());
-            existingMeal.setDescription(updatedMeal.getDescription());
-            existingMeal.setStartDate(updatedMeal.getStartDate());
-            existingMeal.setEndDate(updatedMeal.getEndDate());
+            StaleVersionException.check(Meal.class, id, expectedVersion, existingMeal.getVersion());
+            mealMapper.updateEntity(updatedMeal, existingMeal);
+            normalize(existingMeal);
 
-            mealRepository.save(existingMeal);
+            // managed, so the changes are flushed at commit without a merge
+            MealDTO savedDTO = mealMapper.toDto(existingMeal);
+            AfterCommit.run(() -> activeMealPlanCache.put(savedDTO));
             return true;
         }
 
@@ -58,14 +98,44 @@ public class MealServiceIMPL implements MealService {
     }
 
     @Override
-    public boolean deleteMeal(Long id) {
+    @Transactional
+    public boolean deleteMeal(Long id, Long expectedVersion) {
         Optional<Meal> meal = mealRepository.findById(id);
 
         if(meal.isPresent()) {
-            mealRepository.deleteById(id);
+            StaleVersionException.check(Meal.class, id, expectedVersion, meal.get().getVersion());
+            mealRepository.delete(meal.get());
+            AfterCommit.run(() -> activeMealPlanCache.remove(id));
             return true;
         }
 
         return false;
     }
+
+    // a plan without an end date is a single day; planned recipes must fall inside the plan
+    private static void normalize(Meal meal) {
+        if (meal.getStartDate() != null && meal.getEndDate() == null) {
+            meal.setEndDate(meal.getStartDate());
+        }
+        if (meal.getStartDate() != null && meal.getEndDate().isBefore(meal.getStartDate())) {
+            throw new IllegalArgumentException("endDate is before startDate");
+        }
+        if (meal.getRecipes() == null) {
+            meal.setRecipes(new ArrayList<>());
+        }
+        for (PlannedRecipe planned : meal.getRecipes()) {
+            if (planned.getRecipeId() == null || planned.getDay() == null) {
+                throw new IllegalArgumentException("planned recipes need a recipeId and a day");
+            }
+            if (meal.getStartDate() == null || planned.getDay().isBefore(meal.getStartDate())
+                    || planned.getDay().isAfter(meal.getEndDate())) {
+                throw new IllegalArgumentException("planned day " + planned.getDay() + " is outside the plan");
+            }
+            if (planned.getMultiplier() == null) {
+                planned.setMultiplier(1.0);
+            } else if (planned.getMultiplier() <= 0) {
+                throw new IllegalArgumentException("multiplier must be positive");
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,122 +1,443 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cache.ResponseCache;
 import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipePageDTO;
 import com.example.backend.entity.Recipe;
+import com.example.backend.entity.Review;
+import com.example.backend.event.RecipeChangedEvent;
+import com.example.backend.mapper.RecipeMapper;
+import com.example.backend.media.ImagePipeline;
+import com.example.backend.media.ImageStore;
+import com.example.backend.media.StoredImage;
 import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewRepo;
 import com.example.backend.service.RecipeService;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.beans.BeanUtils;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.shopping.IngredientParser;
+import com.example.backend.shopping.ParsedIngredient;
+import com.example.backend.util.AfterCommit;
+import com.example.backend.util.OptimisticRetry;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class RecipeServiceIMPL implements RecipeService {
 
+    private static final Logger log = LoggerFactory.getLogger(RecipeServiceIMPL.class);
+
     @Autowired
     private RecipeRepo recipeRepo;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RecipeMapper recipeMapper;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ImageStore imageStore;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Autowired
+    private ImagePipeline imagePipeline;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${recipe.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${recipe.page.max-size:100}")
+    private int maxPageSize;
+
+    private static final String CURSOR_PREFIX = "recipe:";
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate imageUrlTransaction;
+
+    @PostConstruct
+    public void init() {
+        // its own transaction, so it also commits when it runs from another transaction's after-commit hook
+        imageUrlTransaction = new TransactionTemplate(transactionManager);
+        imageUrlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // not transactional: image files are written before a connection is taken, and the insert is
+    // the repository's own transaction
     @Override
     public String saveRecipe(RecipeDTO recipeDTO, List<MultipartFile> images) throws IOException {
-        Recipe recipe = new Recipe();
-        recipe.setTitle(recipeDTO.getTitle());
-        recipe.setDescription(recipeDTO.getDescription());
-        recipe.setIngredients(recipeDTO.getIngredients());
-        recipe.setSteps(recipeDTO.getSteps());
-        recipe.setCategory(recipeDTO.getCategory());
+        Recipe recipe = recipeMapper.toEntity(recipeDTO);
         recipe.setRating(recipeDTO.getRating() != null ? recipeDTO.getRating() : 0.0);
+        parseIngredients(recipe);
         
-        // Handle image uploads
+        // Handle image uploads: originals are stored by content hash, resizing happens off the request thread
         Set<String> imageUrls = new HashSet<>();
+        List<StoredImage> storedImages = new ArrayList<>();
         if (images != null && !images.isEmpty()) {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Save each image
             for (MultipartFile image : images) {
                 if (!image.isEmpty()) {
-                    String fileName = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-                    Path filePath = uploadPath.resolve(fileName);
-                    Files.copy(image.getInputStream(), filePath);
-                    imageUrls.add("/uploads/" + fileName);
+                    long startedAt = System.nanoTime();
+                    StoredImage storedImage = imageStore.store(image);
+                    recordImageIo("write", startedAt, image.getSize());
+                    storedImages.add(storedImage);
+                    imageUrls.add(storedImage.getUrl());
                 }
             }
         }
         recipe.setImageUrls(imageUrls);
 
-        recipeRepo.save(recipe);
+        Recipe savedRecipe = recipeRepo.save(recipe);
+        responseCache.bumpVersion(Recipe.class);
+        eventPublisher.publishEvent(new RecipeChangedEvent(savedRecipe.getId(), recipeMapper.toDto(savedRecipe)));
+
+        Long recipeId = savedRecipe.getId();
+        AfterCommit.run(() -> {
+            for (StoredImage storedImage : storedImages) {
+                imagePipeline.submit(storedImage,
+                        displayUrl -> replaceImageUrl(recipeId, storedImage.getUrl(), displayUrl));
+            }
+        });
         return "Recipe '" + recipeDTO.getTitle() + "' saved successfully";
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RecipeDTO> getAllRecipes() {
-        List<Recipe> recipes = recipeRepo.findAll();
-        return modelMapper.map(recipes, new TypeToken<List<RecipeDTO>>() {}.getType());
+        List<Recipe> recipes = recipeRepo.findAllWithIngredients();
+        recipeRepo.fetchAllSteps();
+        recipeRepo.fetchAllImageUrls();
+        return recipeMapper.toDtoList(recipes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecipePageDTO getRecipePage(String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long lastId = decodeCursor(cursor);
+
+        // fetch one extra row so we know whether another page exists without a count query
+        List<Recipe> recipes = recipeRepo.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = recipes.size() > pageSize;
+        if (hasMore) {
+            recipes = recipes.subList(0, pageSize);
+        }
+        if (!recipes.isEmpty()) {
+            List<Long> ids = recipes.stream().map(Recipe::getId).collect(Collectors.toList());
+            recipeRepo.fetchIngredients(ids);
+            recipeRepo.fetchSteps(ids);
+            recipeRepo.fetchImageUrls(ids);
+        }
+
+        List<RecipeDTO> content = recipeMapper.toDtoList(recipes);
+        String nextCursor = hasMore ? encodeCursor(recipes.get(recipes.size() - 1).getId()) : null;
+        return new RecipePageDTO(content, nextCursor, hasMore);
     }
 
     @Override
-    public RecipeDTO updateRecipe(Long id, RecipeDTO recipeDTO) {
+    @Transactional(readOnly = true)
+    public void streamAllRecipes(Consumer<RecipeDTO> consumer) {
+        // batches of ids with their collections fetched per batch, instead of a cursor that
+        // lazy-loads three collections for every row
+        long lastId = 0L;
+        List<Recipe> batch;
+        do {
+            batch = recipeRepo.findBatchAfter(lastId, PageRequest.of(0, STREAM_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Long> ids = batch.stream().map(Recipe::getId).collect(Collectors.toList());
+            recipeRepo.fetchIngredients(ids);
+            recipeRepo.fetchSteps(ids);
+            recipeRepo.fetchImageUrls(ids);
+            for (Recipe recipe : batch) {
+                consumer.accept(recipeMapper.toDto(recipe));
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            // drop the batch so the persistence context doesn't grow with the table
+            entityManager.clear();
+        } while (batch.size() == STREAM_BATCH_SIZE);
+    }
+
+    private void replaceImageUrl(Long recipeId, String originalUrl, String displayUrl) {
+        if (displayUrl.equals(originalUrl)) {
+            return;
+        }
+        // variant callbacks for the same recipe can finish together, and edits can land in between.
+        // The version check makes the loser retry on fresh state instead of every callback queueing on
+        // a row lock, and nothing blocks, so request threads holding a connection can't deadlock here.
+        OptimisticRetry.run(() -> imageUrlTransaction.executeWithoutResult(status -> {
+            Recipe recipe = entityManager.find(Recipe.class, recipeId);
+            if (recipe != null && recipe.getImageUrls().remove(originalUrl)) {
+                recipe.getImageUrls().add(displayUrl);
+                responseCache.bumpVersion(Recipe.class);
+            }
+        }));
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public RecipeDTO updateRecipe(Long id, RecipeDTO recipeDTO, Long expectedVersion) {
         // Fetch existing recipe by ID
-        Recipe existingRecipe = recipeRepo.findById(id)
+        Recipe existingRecipe = recipeRepo.findDetailedById(id)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
+        StaleVersionException.check(Recipe.class, id, expectedVersion, existingRecipe.getVersion());
 
         // Copy properties from DTO to entity
-        BeanUtils.copyProperties(recipeDTO, existingRecipe, "id", "imageUrls");
+        List<String> previousIngredients = existingRecipe.getIngredients() != null
+                ? new ArrayList<>(existingRecipe.getIngredients()) : null;
+        recipeMapper.updateEntity(recipeDTO, existingRecipe);
+        // an edit that leaves the lines alone doesn't load or rewrite their parsed form
+        if (!Objects.equals(previousIngredients, existingRecipe.getIngredients())) {
+            parseIngredients(existingRecipe);
+        }
         
-        // Handle image URLs separately if provided
+        // as with PATCH, images only arrive through uploads; a PUT can drop them but not point at other files
         if (recipeDTO.getImageUrls() != null) {
-            existingRecipe.setImageUrls(new HashSet<>(recipeDTO.getImageUrls()));
+            Set<String> imageUrls = new HashSet<>(recipeDTO.getImageUrls());
+            if (!existingRecipe.getImageUrls().containsAll(imageUrls)) {
+                throw new IllegalArgumentException("imageUrls can only remove existing images");
+            }
+            existingRecipe.getImageUrls().retainAll(imageUrls);
         }
 
-        // Save updated entity
-        Recipe updatedRecipe = recipeRepo.save(existingRecipe);
+        // the entity is managed, so dirty checking writes it without a merge. Flushing here rather than at
+        // commit puts the new version in the response, and a lost race surfaces before the event goes out.
+        recipeRepo.flush();
+        responseCache.bumpVersion(Recipe.class);
 
         // Convert entity to DTO
-        RecipeDTO responseDTO = new RecipeDTO();
-        BeanUtils.copyProperties(updatedRecipe, responseDTO);
+        RecipeDTO responseDTO = recipeMapper.toDto(existingRecipe);
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, responseDTO));
+        return responseDTO;
+    }
+
+    @Override
+    @Transactional
+    public RecipeDTO patchRecipe(Long id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        Recipe recipe = recipeRepo.findDetailedById(id).orElse(null);
+        if (recipe == null) {
+            return null;
+        }
+        StaleVersionException.check(Recipe.class, id, expectedVersion, recipe.getVersion());
 
+        // only what the patch names is touched; lists are edited in place, so Hibernate writes the
+        // positions that changed, and @DynamicUpdate limits the recipe row to the changed columns
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String field = member.getKey();
+            JsonNode value = member.getValue();
+            switch (field) {
+                case "title":
+                    String title = patchText(field, value);
+                    if (title == null || title.trim().isEmpty()) {
+                        throw new IllegalArgumentException("title is required");
+                    }
+                    recipe.setTitle(title);
+                    break;
+                case "description":
+                    recipe.setDescription(patchText(field, value));
+                    break;
+                case "category":
+                    recipe.setCategory(patchText(field, value));
+                    break;
+                case "ingredients":
+                    if (recipe.getIngredients() == null) {
+                        recipe.setIngredients(new ArrayList<>());
+                    }
+                    replaceInPlace(recipe.getIngredients(), patchList(field, value));
+                    parseIngredients(recipe);
+                    break;
+                case "steps":
+                    if (recipe.getSteps() == null) {
+                        recipe.setSteps(new ArrayList<>());
+                    }
+                    replaceInPlace(recipe.getSteps(), patchList(field, value));
+                    break;
+                case "imageUrls":
+                    // images only arrive through uploads; a patch can drop them but not point at other files
+                    Set<String> imageUrls = new HashSet<>(patchList(field, value));
+                    if (!recipe.getImageUrls().containsAll(imageUrls)) {
+                        throw new IllegalArgumentException("imageUrls can only remove existing images");
+                    }
+                    recipe.getImageUrls().retainAll(imageUrls);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown or read-only field: " + field);
+            }
+        }
+
+        recipeRepo.flush();
+        responseCache.bumpVersion(Recipe.class);
+        RecipeDTO responseDTO = recipeMapper.toDto(recipe);
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, responseDTO));
         return responseDTO;
     }
 
+    private static String patchText(String field, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return value.textValue();
+    }
+
+    private static List<String> patchList(String field, JsonNode value) {
+        List<String> items = new ArrayList<>();
+        if (value.isNull()) {
+            return items;
+        }
+        if (!value.isArray()) {
+            throw new IllegalArgumentException(field + " must be an array of strings");
+        }
+        for (JsonNode item : value) {
+            if (!item.isTextual()) {
+                throw new IllegalArgumentException(field + " must be an array of strings");
+            }
+            items.add(item.textValue());
+        }
+        return items;
+    }
+
+    // makes target equal to source by setting changed positions and trimming or appending the tail
+    // the shopping list reads the parsed lines, so they're kept in step with every write of the ingredients
+    static void parseIngredients(Recipe recipe) {
+        List<ParsedIngredient> parsed = IngredientParser.parseAll(recipe.getIngredients());
+        if (recipe.getParsedIngredients() == null) {
+            recipe.setParsedIngredients(parsed);
+        } else {
+            replaceInPlace(recipe.getParsedIngredients(), parsed);
+        }
+    }
+
+    private static <T> void replaceInPlace(List<T> target, List<T> source) {
+        int common = Math.min(target.size(), source.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(target.get(i), source.get(i))) {
+                target.set(i, source.get(i));
+            }
+        }
+        while (target.size() > source.size()) {
+            target.remove(target.size() - 1);
+        }
+        for (int i = target.size(); i < source.size(); i++) {
+            target.add(source.get(i));
+        }
+    }
+
+    private void recordImageIo(String operation, long startedAt, long bytes) {
+        Timer.builder("cookbook.image.io").tag("operation", operation).register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("cookbook.image.bytes").baseUnit("bytes").tag("operation", operation)
+                .register(meterRegistry).record(bytes);
+    }
+
     @Override
-    public String deleteRecipe(Long id) {
-        if (recipeRepo.existsById(id)) {
+    @Transactional
+    public String deleteRecipe(Long id, Long expectedVersion) {
+        Recipe recipe = recipeRepo.findDetailedById(id).orElse(null);
+        if (recipe != null) {
+            StaleVersionException.check(Recipe.class, id, expectedVersion, recipe.getVersion());
             // Delete associated images
-            Recipe recipe = recipeRepo.findById(id).orElse(null);
-            if (recipe != null && recipe.getImageUrls() != null) {
+            List<String> unusedImageUrls = new ArrayList<>();
+            if (recipe.getImageUrls() != null) {
                 for (String imageUrl : recipe.getImageUrls()) {
+                    // content-addressed files can be shared with other recipes that uploaded the same bytes, and
+                    // a legacy file name may have been copied onto another recipe before edits were checked
+                    String hash = imageStore.hashOf(imageUrl);
+                    String urlPattern = hash == null ? imageUrl : ImageStore.URL_PREFIX + hash + "%";
+                    if (recipeRepo.countOtherRecipesUsingImage(id, urlPattern) == 0) {
+                        unusedImageUrls.add(imageUrl);
+                    }
+                }
+            }
+
+            reviewRepo.deleteByRecipeId(id);
+            recipeRepo.delete(recipe);
+            responseCache.bumpVersion(Recipe.class);
+            responseCache.bumpVersion(Review.class);
+            eventPublisher.publishEvent(new RecipeChangedEvent(id, null));
+            // files can't be rolled back, so they only go once the recipe is really gone
+            AfterCommit.run(() -> {
+                for (String imageUrl : unusedImageUrls) {
                     try {
-                        String fileName = imageUrl.substring(imageUrl.lastIndexOf("/") + 1);
-                        Path filePath = Paths.get(uploadDir, fileName);
-                        Files.deleteIfExists(filePath);
+                        long startedAt = System.nanoTime();
+                        recordImageIo("delete", startedAt, imageStore.delete(imageUrl));
                     } catch (IOException e) {
-                        // Log the error but continue with recipe deletion
-                        System.err.println("Error deleting image file: " + e.getMessage());
+                        // the recipe is gone either way; an orphaned file is only wasted disk
+                        log.warn("Could not delete image {} of recipe {}", imageUrl, id, e);
                     }
                 }
-            }
-            
-            recipeRepo.deleteById(id);
+            });
             return "Recipe with ID " + id + " deleted successfully";
         } else {
             throw new RuntimeException("Recipe not found");
@@ -0,0 +1,299 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.cache.ResponseCache;
+import com.example.backend.dto.ImportResultDTO;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.event.RecipesImportedEvent;
+import com.example.backend.mapper.RecipeMapper;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.RecipeTransferService;
+import com.example.backend.util.Csv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class RecipeTransferServiceIMPL implements RecipeTransferService {
+
+    // CSV columns; list-valued columns hold one item per line inside the quoted cell
+    private static final List<String> CSV_HEADER = Arrays.asList(
+            "id", "title", "description", "category", "rating", "ingredients", "steps", "imageUrls");
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private RecipeMapper recipeMapper;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${recipe.import.chunk-size:500}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportResultDTO importRecipes(InputStream inputStream, String format) throws IOException {
+        long startedAt = System.nanoTime();
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            if (FORMAT_CSV.equalsIgnoreCase(format)) {
+                readCsv(reader, run);
+            } else if (FORMAT_NDJSON.equalsIgnoreCase(format)) {
+                readNdjson(reader, run);
+            } else {
+                throw new IllegalArgumentException("Unsupported format: " + format);
+            }
+            run.flush();
+        } finally {
+            if (run.imported > 0) {
+                responseCache.bumpVersion(Recipe.class);
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        return new ImportResultDTO(run.imported, run.failed, run.errors, elapsedMillis);
+    }
+
+    @Override
+    public void exportRecipes(OutputStream outputStream, String format) throws IOException {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        if (!csv && !FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (csv) {
+                Csv.writeRecord(writer, CSV_HEADER);
+            }
+            recipeService.streamAllRecipes(recipe -> {
+                try {
+                    if (csv) {
+                        Csv.writeRecord(writer, toCsvRow(recipe));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(recipe));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, objectMapper.readValue(line, RecipeDTO.class));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = Csv.readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+
+        List<String> row;
+        long rowNumber = 0;
+        while ((row = Csv.readRecord(reader)) != null) {
+            rowNumber++;
+            if (row.size() == 1 && row.get(0).trim().isEmpty()) {
+                continue;
+            }
+            RecipeDTO recipe = new RecipeDTO();
+            recipe.setTitle(cell(row, columns, "title"));
+            recipe.setDescription(cell(row, columns, "description"));
+            recipe.setCategory(cell(row, columns, "category"));
+            recipe.setIngredients(lines(cell(row, columns, "ingredients")));
+            recipe.setSteps(lines(cell(row, columns, "steps")));
+            List<String> imageUrls = lines(cell(row, columns, "imageUrls"));
+            recipe.setImageUrls(imageUrls.isEmpty() ? null : new HashSet<>(imageUrls));
+            String rating = cell(row, columns, "rating");
+            try {
+                recipe.setRating(rating == null || rating.isEmpty() ? null : Double.valueOf(rating));
+            } catch (NumberFormatException e) {
+                run.reject(rowNumber, "invalid rating: " + rating);
+                continue;
+            }
+            run.add(rowNumber, recipe);
+        }
+    }
+
+    private static String cell(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= row.size() ? null : row.get(index);
+    }
+
+    private static List<String> lines(String value) {
+        List<String> items = new ArrayList<>();
+        if (value == null) {
+            return items;
+        }
+        for (String item : value.split("\r?\n")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static List<String> toCsvRow(RecipeDTO recipe) {
+        return Arrays.asList(
+                String.valueOf(recipe.getId()),
+                recipe.getTitle(),
+                recipe.getDescription(),
+                recipe.getCategory(),
+                recipe.getRating() == null ? null : recipe.getRating().toString(),
+                joinLines(recipe.getIngredients()),
+                joinLines(recipe.getSteps()),
+                joinLines(recipe.getImageUrls()));
+    }
+
+    private static String joinLines(Collection<String> items) {
+        return items == null ? null : String.join("\n", items);
+    }
+
+    private static String validate(RecipeDTO recipe) {
+        if (recipe.getTitle() == null || recipe.getTitle().trim().isEmpty()) {
+            return "title is required";
+        }
+        if (recipe.getTitle().length() > 255) {
+            return "title is longer than 255 characters";
+        }
+        if (recipe.getDescription() != null && recipe.getDescription().length() > 1000) {
+            return "description is longer than 1000 characters";
+        }
+        if (recipe.getSteps() != null && recipe.getSteps().stream().anyMatch(step -> step != null && step.length() > 1000)) {
+            return "a step is longer than 1000 characters";
+        }
+        return null;
+    }
+
+    /**
+     * Accumulates valid rows and writes them a chunk at a time. Each chunk is its own
+     * transaction, so a bad chunk only loses its own rows and memory stays flat.
+     */
+    private class ImportRun {
+        private final List<RecipeDTO> pending = new ArrayList<>();
+        private long firstPendingRow;
+        private long imported;
+        private long failed;
+        private final List<String> errors = new ArrayList<>();
+
+        void add(long rowNumber, RecipeDTO recipe) {
+            String problem = validate(recipe);
+            if (problem != null) {
+                reject(rowNumber, problem);
+                return;
+            }
+            if (pending.isEmpty()) {
+                firstPendingRow = rowNumber;
+            }
+            pending.add(recipe);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long rowNumber, String problem) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("row " + rowNumber + ": " + problem);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Recipe> entities = new ArrayList<>(pending.size());
+            for (RecipeDTO recipeDTO : pending) {
+                Recipe recipe = recipeMapper.toEntity(recipeDTO);
+                recipe.setRating(recipeDTO.getRating() != null ? recipeDTO.getRating() : 0.0);
+                recipe.setImageUrls(recipeDTO.getImageUrls() != null ? new HashSet<>(recipeDTO.getImageUrls()) : new HashSet<>());
+                RecipeServiceIMPL.parseIngredients(recipe);
+                entities.add(recipe);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Recipe> saved = recipeRepo.saveAll(entities);
+                    // indexes apply the chunk after it commits
+                    eventPublisher.publishEvent(new RecipesImportedEvent(recipeMapper.toDtoList(saved)));
+                });
+                imported += entities.size();
+            } catch (RuntimeException e) {
+                failed += entities.size();
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("rows " + firstPendingRow + "+ (" + entities.size() + " rows): " + e.getMessage());
+                }
+            }
+            pending.clear();
+        }
+    }
+}
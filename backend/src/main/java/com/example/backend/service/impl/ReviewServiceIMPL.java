@@ -1,14 +1,42 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cache.ResponseCache;
 import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.ReviewPageDTO;
+import com.example.backend.entity.Recipe;
 import com.example.backend.entity.Review;
+import com.example.backend.event.RecipeRatedEvent;
+import com.example.backend.event.ReviewPostedEvent;
+import com.example.backend.mapper.ReviewMapper;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewListItem;
 import com.example.backend.repo.ReviewRepo;
 import com.example.backend.service.ReviewService;
+import com.example.backend.service.SearchService;
+import com.example.backend.service.StaleVersionException;
+import com.example.backend.util.AfterCommit;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -17,45 +45,141 @@ public class ReviewServiceIMPL implements ReviewService {
     @Autowired
     private ReviewRepo reviewRepo;
 
+    @Autowired
+    private ReviewMapper reviewMapper;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Bayesian average: every recipe starts as if it had priorWeight reviews of priorMean
+    @Value("${review.rating.prior-mean:3.0}")
+    private double priorMean;
+
+    @Value("${review.rating.prior-weight:5}")
+    private double priorWeight;
+
+    @Value("${review.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${review.page.max-size:100}")
+    private int maxPageSize;
+
+    private static final String CURSOR_PREFIX = "review:";
+
+    // later than any real review, so the first page starts at the newest
+    private static final Instant FEED_START = Instant.parse("9999-12-31T23:59:59Z");
+
+    @PostConstruct
+    public void checkPrior() {
+        if (priorWeight <= 0) {
+            throw new IllegalStateException("review.rating.prior-weight must be positive");
+        }
+    }
+
     @Override
+    @Transactional
     public String saveReview(ReviewDTO reviewDTO) {
-        Review review = new Review();
-        review.setName(reviewDTO.getName());
-        review.setComment(reviewDTO.getComment());
-        review.setRating(reviewDTO.getRating());
-        // If you have a created date field, you can set it here
-        // review.setCreatedAt(new Date());
+        if (reviewDTO.getRecipeId() != null && !recipeRepo.existsById(reviewDTO.getRecipeId())) {
+            return "Recipe not found with id: " + reviewDTO.getRecipeId();
+        }
+        Review review = reviewMapper.toEntity(reviewDTO);
+        // microseconds is what MySQL's datetime(6) keeps, so feed cursors round-trip exactly
+        review.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
         reviewRepo.save(review);
+        applyRating(review.getRecipeId(), 1, review.getRating());
+        if (review.getRecipeId() != null) {
+            eventPublisher.publishEvent(new ReviewPostedEvent(review.getRecipeId(), System.currentTimeMillis()));
+        }
+        responseCache.bumpVersion(Review.class);
         return "Review saved successfully!";
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getAllReviews() {
         List<Review> reviews = reviewRepo.findAll();
+        return reviewMapper.toDtoList(reviews);
+    }
 
-        List<ReviewDTO> reviewDTOs = new ArrayList<>();
-        for (Review review : reviews) {
-            ReviewDTO dto = new ReviewDTO();
-            dto.setId(review.getId());
-            dto.setName(review.getName());
-            dto.setComment(review.getComment());
-            dto.setRating(review.getRating());
-            reviewDTOs.add(dto);
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewPageDTO getReviewFeed(Long recipeId, Integer minRating, Integer maxRating, Instant since,
+                                       String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        int min = minRating == null ? Integer.MIN_VALUE : minRating;
+        int max = maxRating == null ? Integer.MAX_VALUE : maxRating;
+        Instant from = since == null ? Instant.EPOCH : since;
+        Instant beforeCreatedAt = FEED_START;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            beforeCreatedAt = Instant.parse(position[0]);
+            beforeId = Long.parseLong(position[1]);
         }
-        return reviewDTOs;
+
+        // fetch one extra row so we know whether another page exists without a count query
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ReviewListItem> items = recipeId == null
+                ? reviewRepo.findFeed(from, min, max, beforeCreatedAt, beforeId, page)
+                : reviewRepo.findFeedForRecipe(recipeId, from, min, max, beforeCreatedAt, beforeId, page);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewListItem last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new ReviewPageDTO(reviewMapper.toFeedDtoList(items), nextCursor, hasMore);
     }
 
     @Override
-    public String updateReview(Long id, ReviewDTO reviewDTO) {
+    @Transactional
+    public String updateReview(Long id, ReviewDTO reviewDTO, Long expectedVersion) {
         Optional<Review> optionalReview = reviewRepo.findById(id);
 
         if (optionalReview.isPresent()) {
             Review existingReview = optionalReview.get();
-            existingReview.setName(reviewDTO.getName());
-            existingReview.setComment(reviewDTO.getComment());
-            existingReview.setRating(reviewDTO.getRating());
+            StaleVersionException.check(Review.class, id, expectedVersion, existingReview.getVersion());
+            Long oldRecipeId = existingReview.getRecipeId();
+            int oldRating = existingReview.getRating();
+            // checked before the managed entity is touched, so a rejected update isn't flushed anyway
+            Long newRecipeId = reviewDTO.getRecipeId() != null ? reviewDTO.getRecipeId() : oldRecipeId;
+            if (!Objects.equals(newRecipeId, oldRecipeId) && !recipeRepo.existsById(newRecipeId)) {
+                return "Recipe not found with id: " + newRecipeId;
+            }
+            reviewMapper.updateEntity(reviewDTO, existingReview);
 
-            reviewRepo.save(existingReview);
+            if (Objects.equals(oldRecipeId, newRecipeId)) {
+                applyRating(newRecipeId, 0, existingReview.getRating() - oldRating);
+            } else if (oldRecipeId != null && (newRecipeId == null || oldRecipeId < newRecipeId)) {
+                // rows are locked in id order, so two reviews moving opposite ways can't deadlock
+                applyRating(oldRecipeId, -1, -oldRating);
+                applyRating(newRecipeId, 1, existingReview.getRating());
+            } else {
+                applyRating(newRecipeId, 1, existingReview.getRating());
+                applyRating(oldRecipeId, -1, -oldRating);
+            }
+            responseCache.bumpVersion(Review.class);
             return "Review updated successfully!";
         } else {
             return "Review not found with id: " + id;
@@ -63,14 +187,104 @@ public class ReviewServiceIMPL implements ReviewService {
     }
 
     @Override
-    public String deleteReview(Long id) {
+    @Transactional
+    public String deleteReview(Long id, Long expectedVersion) {
         Optional<Review> optionalReview = reviewRepo.findById(id);
 
         if (optionalReview.isPresent()) {
-            reviewRepo.deleteById(id);
+            Review review = optionalReview.get();
+            StaleVersionException.check(Review.class, id, expectedVersion, review.getVersion());
+            reviewRepo.delete(review);
+            applyRating(review.getRecipeId(), -1, -review.getRating());
+            responseCache.bumpVersion(Review.class);
             return "Review deleted successfully!";
         } else {
             return "Review not found with id: " + id;
         }
     }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${review.aggregates.rebuild-cron:-}")
+    public String rebuildRatingAggregates() {
+        int recipes = recipeRepo.recountReviews();
+        List<Object[]> aggregates = recipeRepo.findReviewAggregates();
+        // recipes whose reviews are all gone fall back to the prior, as they would one review at a time
+        jdbcTemplate.update("update recipe set rating = ? where review_count = 0", priorMean);
+        jdbcTemplate.batchUpdate("update recipe set rating = ? where id = ?", aggregates, 500, (statement, row) -> {
+            statement.setDouble(1, bayesianAverage(((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+            statement.setLong(2, ((Number) row[0]).longValue());
+        });
+        // plain JDBC bypasses Hibernate, so its cached copies of recipes are dropped by hand
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictEntityData(Recipe.class);
+        responseCache.bumpVersion(Recipe.class);
+        // the search index stores ratings too; rebuilding it is rare enough to do wholesale
+        AfterCommit.run(searchService::reindexRecipes);
+        return "Recomputed rating aggregates for " + recipes + " recipes (" + aggregates.size() + " with reviews)";
+    }
+
+    // O(1) per write: the recipe row is adjusted in place instead of re-aggregating its reviews
+    private void applyRating(Long recipeId, long countDelta, long sumDelta) {
+        if (recipeId == null || (countDelta == 0 && sumDelta == 0)) {
+            return;
+        }
+        // one atomic statement, so concurrent reviews neither lose increments nor wait on a row lock held
+        // until commit. rating is set first because MySQL evaluates assignments left to right, with the
+        // columns already updated; the casts keep H2 from typing the priors as the bigint columns they're
+        // added to (CAST AS DOUBLE needs MySQL 8.0.17). The query space matches no entity, so Hibernate
+        // doesn't clear the whole Recipe region and its cached queries the way it does after a bulk update
+        int updated = entityManager.createNativeQuery("update recipe set "
+                        + "rating = (rating_sum + :sumDelta + cast(:priorSum as double)) "
+                        + "/ (review_count + :countDelta + cast(:priorWeight as double)), "
+                        + "review_count = review_count + :countDelta, "
+                        + "rating_sum = rating_sum + :sumDelta "
+                        + "where id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("recipe_rating_aggregates")
+                .setParameter("sumDelta", sumDelta)
+                .setParameter("countDelta", countDelta)
+                .setParameter("priorSum", priorWeight * priorMean)
+                .setParameter("priorWeight", priorWeight)
+                .setParameter("id", recipeId)
+                .executeUpdate();
+        if (updated > 0) {
+            // only the aggregates are read back, straight from the row: the recipe's text didn't change,
+            // so nothing needs re-parsing or re-indexing, and no uncommitted state reaches the cache
+            Object[] aggregate = (Object[]) entityManager
+                    .createNativeQuery("select rating, review_count from recipe where id = :id")
+                    .setParameter("id", recipeId)
+                    .getSingleResult();
+            Number rating = (Number) aggregate[0];
+            eventPublisher.publishEvent(new RecipeRatedEvent(recipeId,
+                    rating != null ? rating.doubleValue() : null, ((Number) aggregate[1]).longValue()));
+            AfterCommit.run(() -> entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                    .evictEntityData(Recipe.class, recipeId));
+        }
+        responseCache.bumpVersion(Recipe.class);
+    }
+
+    private static String encodeCursor(Instant createdAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = decoded.startsWith(CURSOR_PREFIX)
+                    ? decoded.substring(CURSOR_PREFIX.length()).split("\\|") : new String[0];
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private double bayesianAverage(long reviewCount, long ratingSum) {
+        return (priorWeight * priorMean + ratingSum) / (priorWeight + reviewCount);
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.PantryMatchDTO;
+import com.example.backend.dto.PantryRequestDTO;
+import com.example.backend.dto.RecipeSearchResultDTO;
+import com.example.backend.search.PantryMatchIndex;
+import com.example.backend.search.RecipeSearchIndex;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class SearchServiceIMPL implements SearchService {
+
+    @Autowired
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Autowired
+    private PantryMatchIndex pantryMatchIndex;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Value("${search.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${search.page.max-size:50}")
+    private int maxPageSize;
+
+    @Value("${search.pantry.default-limit:20}")
+    private int defaultPantryLimit;
+
+    @Value("${search.pantry.max-limit:100}")
+    private int maxPantryLimit;
+
+    @Value("${search.reindex-on-startup:false}")
+    private boolean reindexOnStartup;
+
+    @Override
+    public RecipeSearchResultDTO searchRecipes(String query, String category, Integer page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        return recipeSearchIndex.search(query, category, pageNumber, pageSize);
+    }
+
+    @Override
+    public List<PantryMatchDTO> matchPantry(PantryRequestDTO pantryRequestDTO) {
+        if (pantryRequestDTO.getIngredients() == null || pantryRequestDTO.getIngredients().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Integer limit = pantryRequestDTO.getLimit();
+        int maxResults = limit == null ? defaultPantryLimit : Math.max(1, Math.min(limit, maxPantryLimit));
+        double minCoverage = pantryRequestDTO.getMinCoverage() == null ? 0.0 : pantryRequestDTO.getMinCoverage();
+        return pantryMatchIndex.match(pantryRequestDTO.getIngredients(), maxResults, minCoverage);
+    }
+
+    @Override
+    public String reindexRecipes() {
+        long count = recipeSearchIndex.rebuild(recipeService::streamAllRecipes);
+        pantryMatchIndex.rebuild(recipeService::streamAllRecipes);
+        return "Reindexed " + count + " recipes";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfNeeded() {
+        // a fresh install (or a wiped index dir) starts empty, so fill it from the database
+        if (reindexOnStartup || recipeSearchIndex.size() == 0 || recipeSearchIndex.isOutdated()) {
+            recipeSearchIndex.rebuild(recipeService::streamAllRecipes);
+        }
+        // the pantry index only lives in memory
+        pantryMatchIndex.rebuild(recipeService::streamAllRecipes);
+    }
+}
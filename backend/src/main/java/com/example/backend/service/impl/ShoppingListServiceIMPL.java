@@ -0,0 +1,170 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.MealDTO;
+import com.example.backend.dto.PlannedRecipeDTO;
+import com.example.backend.dto.ShoppingItemDTO;
+import com.example.backend.dto.ShoppingListDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.MealService;
+import com.example.backend.service.ShoppingListService;
+import com.example.backend.shopping.IngredientParser;
+import com.example.backend.shopping.ParsedIngredient;
+import com.example.backend.shopping.ParsedIngredientCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+@Service
+public class ShoppingListServiceIMPL implements ShoppingListService {
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ParsedIngredientCache parsedIngredientCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ShoppingListDTO buildShoppingList(LocalDate from, LocalDate to) {
+        List<PlannedRecipeDTO> planned = new ArrayList<>();
+        for (MealDTO plan : mealService.getMealsInRange(from, to)) {
+            if (plan.getRecipes() == null) {
+                continue;
+            }
+            for (PlannedRecipeDTO entry : plan.getRecipes()) {
+                if (!entry.getDay().isBefore(from) && !entry.getDay().isAfter(to)) {
+                    planned.add(entry);
+                }
+            }
+        }
+        Map<Long, List<ParsedIngredient>> parsed = parsedIngredients(
+                planned.stream().map(PlannedRecipeDTO::getRecipeId).collect(Collectors.toSet()));
+
+        // same ingredient in the same unit adds up; different units stay separate lines
+        Map<Line, Tally> totals = planned.parallelStream()
+                .flatMap(entry -> parsed.getOrDefault(entry.getRecipeId(), Collections.emptyList()).stream()
+                        .map(ingredient -> new Scaled(ingredient, multiplier(entry))))
+                .collect(Collectors.groupingByConcurrent(Scaled::line, Collector.of(
+                        Tally::new, Tally::add, Tally::merge, Collector.Characteristics.UNORDERED)));
+
+        List<ShoppingItemDTO> items = new ArrayList<>(totals.size());
+        totals.forEach((line, tally) -> items.add(new ShoppingItemDTO(line.name,
+                tally.quantified ? Math.round(tally.quantity * 100) / 100.0 : null, line.unit, tally.uses)));
+        items.sort(Comparator.comparing(ShoppingItemDTO::getName)
+                .thenComparing(ShoppingItemDTO::getUnit, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new ShoppingListDTO(from, to, planned.size(), items);
+    }
+
+    // recently used recipes are in memory; the rest are read already parsed, as stored when they were written
+    private Map<Long, List<ParsedIngredient>> parsedIngredients(Set<Long> recipeIds) {
+        Map<Long, List<ParsedIngredient>> parsed = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long recipeId : recipeIds) {
+            List<ParsedIngredient> ingredients = parsedIngredientCache.get(recipeId);
+            if (ingredients != null) {
+                parsed.put(recipeId, ingredients);
+            } else {
+                missing.add(recipeId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return parsed;
+        }
+        Set<Long> unparsed = new HashSet<>();
+        for (Recipe recipe : recipeRepo.fetchParsedIngredients(missing)) {
+            if (recipe.getParsedIngredients().isEmpty()) {
+                unparsed.add(recipe.getId());
+            } else {
+                parsed.put(recipe.getId(), parsedIngredientCache.put(recipe.getId(), recipe.getParsedIngredients()));
+            }
+        }
+        // nothing stored: no ingredients, or not written since parsed lines were stored
+        if (!unparsed.isEmpty()) {
+            for (Recipe recipe : recipeRepo.fetchIngredients(unparsed)) {
+                parsed.put(recipe.getId(), parsedIngredientCache.put(recipe.getId(),
+                        IngredientParser.parseAll(recipe.getIngredients())));
+            }
+        }
+        return parsed;
+    }
+
+    private static double multiplier(PlannedRecipeDTO entry) {
+        return entry.getMultiplier() != null ? entry.getMultiplier() : 1.0;
+    }
+
+    private static final class Line {
+        private final String name;
+        private final String unit;
+
+        private Line(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Line)) {
+                return false;
+            }
+            Line line = (Line) other;
+            return name.equals(line.name) && Objects.equals(unit, line.unit);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, unit);
+        }
+    }
+
+    private static final class Scaled {
+        private final ParsedIngredient ingredient;
+        private final double multiplier;
+
+        private Scaled(ParsedIngredient ingredient, double multiplier) {
+            this.ingredient = ingredient;
+            this.multiplier = multiplier;
+        }
+
+        private Line line() {
+            return new Line(ingredient.getName(), ingredient.getUnit());
+        }
+    }
+
+    private static final class Tally {
+        private double quantity;
+        private boolean quantified;
+        private int uses;
+
+        private void add(Scaled scaled) {
+            uses++;
+            if (scaled.ingredient.getQuantity() != null) {
+                quantity += scaled.ingredient.getQuantity() * scaled.multiplier;
+                quantified = true;
+            }
+        }
+
+        private Tally merge(Tally other) {
+            quantity += other.quantity;
+            quantified |= other.quantified;
+            uses += other.uses;
+            return this;
+        }
+    }
+}
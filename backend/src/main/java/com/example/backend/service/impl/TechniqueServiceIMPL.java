@@ -1,15 +1,19 @@
 package com.example.backend.service.impl;
 
 import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.StaleVersionException;
 import com.example.backend.service.TechniqueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.backend.cache.ResponseCache;
 import com.example.backend.dto.TechniqueDTO;
 import com.example.backend.entity.Technique;
+import com.example.backend.mapper.TechniqueMapper;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class TechniqueServiceIMPL implements TechniqueService {
@@ -17,63 +21,57 @@ public class TechniqueServiceIMPL implements TechniqueService {
     @Autowired
     private TechniqueRepo techniqueRepo;
 
+    @Autowired
+    private TechniqueMapper techniqueMapper;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     @Override
+    @Transactional
     public String saveTechnique(TechniqueDTO techniqueDTO) {
-        Technique technique = new Technique();
-        technique.setTitle(techniqueDTO.getTitle());
-        technique.setDescription(techniqueDTO.getDescription());
-        technique.setVideoTutorial(techniqueDTO.getVideoTutorial());
-        technique.setDifficultyLevel(techniqueDTO.getDifficultyLevel());
-        technique.setTags(techniqueDTO.getTags());
+        Technique technique = techniqueMapper.toEntity(techniqueDTO);
 
         techniqueRepo.save(technique);
+        responseCache.bumpVersion(Technique.class);
         return "Technique saved successfully!";
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TechniqueDTO> getAllTechniques() {
         List<Technique> allTechniques = techniqueRepo.findAll();
-
-        List<TechniqueDTO> techniqueDTOList = new ArrayList<>();
-
-        for (Technique technique : allTechniques) {
-            TechniqueDTO techniqueDTO = new TechniqueDTO(
-                    technique.getTechniqueId(),
-                    technique.getTitle(),
-                    technique.getDescription(),
-                    technique.getVideoTutorial(),
-                    technique.getDifficultyLevel(),
-                    technique.getTags()
-            );
-            techniqueDTOList.add(techniqueDTO);
-        }
-
-        return techniqueDTOList;
+        return techniqueMapper.toDtoList(allTechniques);
     }
 
     @Override
-    public String updateTechnique(TechniqueDTO techniqueDTO) {
-        if (techniqueRepo.existsById(techniqueDTO.getTechniqueId())) {
-            Technique technique = techniqueRepo.getReferenceById(techniqueDTO.getTechniqueId());
-            technique.setTitle(techniqueDTO.getTitle());
-            technique.setDescription(techniqueDTO.getDescription());
-            technique.setVideoTutorial(techniqueDTO.getVideoTutorial());
-            technique.setDifficultyLevel(techniqueDTO.getDifficultyLevel());
-            technique.setTags(techniqueDTO.getTags());
-
-            techniqueRepo.save(technique);
+    @Transactional
+    public String updateTechnique(TechniqueDTO techniqueDTO, Long expectedVersion) {
+        // usually a second-level cache hit; a bulk update would instead clear the whole Technique region
+        // and its cached queries. Dirty checking writes the row with Hibernate's own version check
+        Optional<Technique> technique = techniqueRepo.findById(techniqueDTO.getTechniqueId());
+        if (technique.isPresent()) {
+            StaleVersionException.check(Technique.class, techniqueDTO.getTechniqueId(), expectedVersion,
+                    technique.get().getVersion());
+            techniqueMapper.updateEntity(techniqueDTO, technique.get());
+            responseCache.bumpVersion(Technique.class);
             return "Technique updated successfully!";
         } else {
             return "Technique update failed. No technique found with ID: " + techniqueDTO.getTechniqueId();
         }
     }
+
     @Override
-    public String deleteTechnique(Long techniqueId) {
-        if (techniqueRepo.existsById(techniqueId)) {
-            techniqueRepo.deleteById(techniqueId);
+    @Transactional
+    public String deleteTechnique(Long techniqueId, Long expectedVersion) {
+        Optional<Technique> technique = techniqueRepo.findById(techniqueId);
+        if (technique.isPresent()) {
+            StaleVersionException.check(Technique.class, techniqueId, expectedVersion, technique.get().getVersion());
+            techniqueRepo.delete(technique.get());
+            responseCache.bumpVersion(Technique.class);
             return "Technique deleted successfully!";
         } else {
             return "Technique delete failed. No technique found with ID: " + techniqueId;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.example.backend.shopping;
+
+import com.example.backend.search.IngredientNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the leading amount and unit off an ingredient line ("1 1/2 cups milk",
+ * "2-3 cloves garlic", "½ tsp salt", "200g butter") and converts it to a
+ * {@link ParsedIngredient}. The name comes from {@link IngredientNormalizer}, so it
+ * matches what search and pantry matching use.
+ */
+public final class IngredientParser {
+
+    // whole, decimal, fraction, mixed number or unicode fraction, optionally a range
+    private static final String NUMBER = "(?:\\d+\\s+\\d+/\\d+|\\d+/\\d+|\\d+(?:[.,]\\d+)?\\s*[½¼¾⅓⅔⅛]?|[½¼¾⅓⅔⅛])";
+    private static final Pattern AMOUNT = Pattern.compile(
+            "^\\s*(" + NUMBER + ")(?:\\s*(?:-|–|to)\\s*(" + NUMBER + "))?\\s*([\\p{L}.]+)?");
+
+    private static final Map<Character, Double> UNICODE_FRACTIONS = new HashMap<>();
+
+    // unit word -> canonical unit and the factor into it
+    private static final Map<String, Unit> UNITS = new HashMap<>();
+
+    static {
+        UNICODE_FRACTIONS.put('½', 0.5);
+        UNICODE_FRACTIONS.put('¼', 0.25);
+        UNICODE_FRACTIONS.put('¾', 0.75);
+        UNICODE_FRACTIONS.put('⅓', 1.0 / 3);
+        UNICODE_FRACTIONS.put('⅔', 2.0 / 3);
+        UNICODE_FRACTIONS.put('⅛', 0.125);
+
+        units("g", 1, "g", "gram", "grams", "gr");
+        units("g", 1000, "kg", "kilogram", "kilograms", "kilo", "kilos");
+        units("g", 28.3495, "oz", "ounce", "ounces");
+        units("g", 453.592, "lb", "lbs", "pound", "pounds");
+        units("ml", 1, "ml", "milliliter", "milliliters", "millilitre", "millilitres");
+        units("ml", 1000, "l", "liter", "liters", "litre", "litres");
+        units("ml", 240, "cup", "cups", "c");
+        units("ml", 15, "tbsp", "tbs", "tablespoon", "tablespoons");
+        units("ml", 5, "tsp", "teaspoon", "teaspoons");
+        units("clove", 1, "clove", "cloves");
+        units("slice", 1, "slice", "slices");
+        units("can", 1, "can", "cans", "tin", "tins");
+        units("pinch", 1, "pinch", "pinches");
+        units("bunch", 1, "bunch", "bunches");
+        units("handful", 1, "handful", "handfuls");
+        units("packet", 1, "pack", "packs", "packet", "packets");
+        units("sprig", 1, "sprig", "sprigs");
+        units("stick", 1, "stick", "sticks");
+        units("", 1, "piece", "pieces");
+    }
+
+    private IngredientParser() {
+    }
+
+    // lines that reduce to no name ("to serve", blanks) are left out
+    public static List<ParsedIngredient> parseAll(List<String> lines) {
+        List<ParsedIngredient> parsed = new ArrayList<>();
+        if (lines != null) {
+            for (String line : lines) {
+                ParsedIngredient item = parse(line);
+                if (!item.getName().isEmpty()) {
+                    parsed.add(item);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    public static ParsedIngredient parse(String line) {
+        String name = IngredientNormalizer.normalize(line);
+        if (line == null) {
+            return new ParsedIngredient(name, null, null);
+        }
+        Matcher matcher = AMOUNT.matcher(line.toLowerCase(Locale.ROOT));
+        if (!matcher.find()) {
+            return new ParsedIngredient(name, null, null);
+        }
+        // for a range, plan for the larger amount
+        double quantity = number(matcher.group(2) != null ? matcher.group(2) : matcher.group(1));
+        String word = matcher.group(3) == null ? null : matcher.group(3).replace(".", "");
+        Unit unit = word == null ? null : UNITS.get(word);
+        if (unit == null) {
+            return new ParsedIngredient(name, quantity, "");
+        }
+        return new ParsedIngredient(name, quantity * unit.factor, unit.canonical);
+    }
+
+    private static double number(String text) {
+        text = text.trim().replace(',', '.');
+        double value = 0;
+        char last = text.charAt(text.length() - 1);
+        if (UNICODE_FRACTIONS.containsKey(last)) {
+            value += UNICODE_FRACTIONS.get(last);
+            text = text.substring(0, text.length() - 1).trim();
+            if (text.isEmpty()) {
+                return value;
+            }
+        }
+        String[] parts = text.split("\\s+");
+        for (String part : parts) {
+            int slash = part.indexOf('/');
+            if (slash > 0) {
+                double denominator = Double.parseDouble(part.substring(slash + 1));
+                value += denominator == 0 ? 0 : Double.parseDouble(part.substring(0, slash)) / denominator;
+            } else {
+                value += Double.parseDouble(part);
+            }
+        }
+        return value;
+    }
+
+    private static void units(String canonical, double factor, String... words) {
+        for (String word : words) {
+            UNITS.put(word, new Unit(canonical, factor));
+        }
+    }
+
+    private static final class Unit {
+        private final String canonical;
+        private final double factor;
+
+        private Unit(String canonical, double factor) {
+            this.canonical = canonical;
+            this.factor = factor;
+        }
+    }
+}
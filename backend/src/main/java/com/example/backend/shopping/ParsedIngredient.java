@@ -0,0 +1,59 @@
+package com.example.backend.shopping;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.util.Objects;
+
+/**
+ * One ingredient line reduced to name, amount and a canonical unit: grams for weights,
+ * millilitres for volumes, "" for plain counts ("3 eggs"), or the singular of any
+ * other unit ("clove", "can"). Quantity is null when the line has none ("salt to taste").
+ * Stored with the recipe, so lines are parsed when it's written rather than when it's read.
+ */
+@Embeddable
+public class ParsedIngredient {
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "quantity")
+    private Double quantity;
+
+    @Column(name = "unit", length = 32)
+    private String unit;
+
+    protected ParsedIngredient() {
+    }
+
+    public ParsedIngredient(String name, Double quantity, String unit) {
+        this.name = name;
+        this.quantity = quantity;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ParsedIngredient)) {
+            return false;
+        }
+        ParsedIngredient that = (ParsedIngredient) other;
+        return name.equals(that.name) && Objects.equals(quantity, that.quantity) && Objects.equals(unit, that.unit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, quantity, unit);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.shopping;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.event.RecipeChangedEvent;
+import com.example.backend.event.RecipesImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed ingredient lists per recipe, as stored with it. A write drops the recipe's
+ * entry (from the change events) and the next shopping list that needs it reads
+ * the stored lines; least recently used recipes fall out past the size limit.
+ */
+@Component
+public class ParsedIngredientCache {
+
+    private final Map<Long, List<ParsedIngredient>> entries;
+
+    public ParsedIngredientCache(@Value("${shopping.parsed-cache.max-recipes:20000}") int maxRecipes) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Long, List<ParsedIngredient>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<ParsedIngredient>> eldest) {
+                return size() > maxRecipes;
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        entries.remove(event.getRecipeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        for (RecipeDTO recipe : event.getRecipes()) {
+            entries.remove(recipe.getId());
+        }
+    }
+
+    public List<ParsedIngredient> get(Long recipeId) {
+        return entries.get(recipeId);
+    }
+
+    public List<ParsedIngredient> put(Long recipeId, List<ParsedIngredient> parsed) {
+        // a copy: the entity's own list is a Hibernate collection tied to its session
+        List<ParsedIngredient> immutable = Collections.unmodifiableList(new ArrayList<>(parsed));
+        entries.put(recipeId, immutable);
+        return immutable;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.util;
+
+/**
+ * Entity versions as HTTP entity tags: version 3 is {@code "3"}. If-Match uses strong
+ * comparison, so only a single tag of that form can match.
+ */
+public final class EntityTags {
+
+    // never a row version, so a tag we didn't issue fails the precondition instead of being ignored
+    private static final long UNMATCHABLE = -1L;
+
+    private EntityTags() {
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * The version an If-Match header requires, or null when the request is unconditional
+     * (no header, or {@code *}, which any existing row satisfies).
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return UNMATCHABLE;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.util;
+
+import com.example.backend.service.StaleVersionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a server-side write that lost an optimistic-lock race, so internal read-modify-write
+ * paths stay correct under contention without holding row locks. Client writes are not retried:
+ * replaying one on the fresh row would silently overwrite the change it lost to, so they answer 409.
+ * Every attempt must open its own transaction: wrap the call into the transactional method, never
+ * code inside it. A {@link StaleVersionException} is a failed client precondition and is rethrown as is.
+ */
+public final class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private static final int DEFAULT_ATTEMPTS = 5;
+
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private static final long MAX_BACKOFF_MILLIS = 250;
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        return call(DEFAULT_ATTEMPTS, action);
+    }
+
+    public static <T> T call(int attempts, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (StaleVersionException e) {
+                throw e;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    log.warn("Giving up after {} conflicting attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                // expected under contention; Hibernate has already logged the failed batch at ERROR
+                log.debug("Retrying after a version conflict (attempt {}): {}", attempt, e.getMessage());
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    public static void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // jittered and doubling, so writers that collided once don't collide again in lockstep
+    private static void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        try {
+            long bound = Math.min(BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 16), MAX_BACKOFF_MILLIS);
+            Thread.sleep(1 + ThreadLocalRandom.current().nextLong(bound));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
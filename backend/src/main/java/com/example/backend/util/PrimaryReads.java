@@ -0,0 +1,32 @@
+package com.example.backend.util;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps read-only transactions started inside {@link #call} on the primary. Reads whose
+ * result is cached past the current request go through here: a lagging replica would
+ * otherwise get its old rows cached as current, where they stay until the next write.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        if (isActive()) {
+            return reads.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
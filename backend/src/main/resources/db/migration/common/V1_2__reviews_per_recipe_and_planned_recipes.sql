@@ -0,0 +1,23 @@
+-- reviews belong to a recipe, which keeps a running sum and count of their ratings;
+-- reviews written before this have no recipe, so every existing recipe starts at zero
+alter table recipe add column rating_sum bigint default 0 not null;
+alter table recipe add column review_count bigint default 0 not null;
+alter table review add column recipe_id bigint;
+alter table review add column created_at datetime(6);
+
+create index idx_review_created on review (created_at, id);
+create index idx_review_recipe_created on review (recipe_id, created_at, id);
+
+-- recipes planned on each day of a meal plan
+create table meal_plan_recipes (
+    meal_id bigint not null,
+    plan_day date not null,
+    multiplier double precision,
+    recipe_id bigint not null,
+    slot varchar(32)
+);
+
+alter table meal_plan_recipes add constraint FKpd4oow4utdc03r7vd3oil91wn foreign key (meal_id) references meal_plans (id);
+
+create index idx_meal_plan_dates on meal_plans (start_date, end_date);
+create index idx_meal_plan_end on meal_plans (end_date, start_date);
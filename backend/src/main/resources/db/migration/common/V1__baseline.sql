@@ -0,0 +1,58 @@
+-- The schema as ddl-auto=update left it before Flyway took over. Databases created that way
+-- are baselined at this version (spring.flyway.baseline-version) instead of running it.
+
+create table recipe (
+    id bigint not null auto_increment,
+    category varchar(255),
+    description varchar(1000),
+    rating double precision,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table recipe_images (
+    recipe_id bigint not null,
+    image_url varchar(1000)
+);
+
+create table recipe_ingredients (
+    dish_id bigint not null,
+    ingredient varchar(255)
+);
+
+create table recipe_steps (
+    dish_id bigint not null,
+    step varchar(1000)
+);
+
+create table review (
+    id bigint not null auto_increment,
+    comment varchar(1000) not null,
+    name varchar(255) not null,
+    rating integer not null,
+    primary key (id)
+);
+
+create table technique (
+    technique_id bigint not null auto_increment,
+    description varchar(255),
+    difficulty_level varchar(255),
+    tags varchar(255),
+    title varchar(255),
+    video_tutorial varchar(255),
+    primary key (technique_id)
+);
+
+create table meal_plans (
+    id bigint not null auto_increment,
+    description text,
+    end_date date,
+    start_date date,
+    title varchar(255),
+    primary key (id)
+);
+
+-- constraint names are the ones Hibernate generated, so baselined databases match
+alter table recipe_images add constraint FKs0cf53pdf5dn6mrf012xjv76c foreign key (recipe_id) references recipe (id);
+alter table recipe_ingredients add constraint FK46reni0ysh3r8nh34h11spjll foreign key (dish_id) references recipe (id);
+alter table recipe_steps add constraint FKjgevobyle1s95jhikj9en7nxk foreign key (dish_id) references recipe (id);
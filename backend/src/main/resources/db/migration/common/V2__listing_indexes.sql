@@ -0,0 +1,7 @@
+-- best rated first, overall and within a category
+create index idx_recipe_rating on recipe (rating, id);
+create index idx_recipe_category_rating on recipe (category, rating, id);
+
+-- planned recipes point at recipes without a foreign key (plans outlive deleted recipes);
+-- index the column the way a foreign key would be
+create index idx_meal_plan_recipes_recipe on meal_plan_recipes (recipe_id, plan_day);
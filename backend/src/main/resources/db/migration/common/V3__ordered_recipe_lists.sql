@@ -0,0 +1,53 @@
+-- Ingredients and steps get a position column so Hibernate can update a list row by row
+-- instead of deleting and reinserting all of it. The old tables have no key, so each is
+-- first copied in scan order (the order rows were inserted in) into a table that numbers
+-- them. A window without its own ORDER BY would number rows in whatever order the
+-- partition sort leaves them, which MySQL doesn't keep stable.
+
+create table recipe_ingredients_scan (
+    seq bigint not null auto_increment primary key,
+    dish_id bigint not null,
+    ingredient varchar(255)
+);
+
+insert into recipe_ingredients_scan (dish_id, ingredient)
+select dish_id, ingredient from recipe_ingredients;
+
+create table recipe_ingredients_ordered (
+    dish_id bigint not null,
+    ingredient_order integer not null,
+    ingredient varchar(255),
+    primary key (dish_id, ingredient_order)
+);
+
+insert into recipe_ingredients_ordered (dish_id, ingredient_order, ingredient)
+select dish_id, row_number() over (partition by dish_id order by seq) - 1, ingredient from recipe_ingredients_scan;
+
+drop table recipe_ingredients_scan;
+drop table recipe_ingredients;
+alter table recipe_ingredients_ordered rename to recipe_ingredients;
+alter table recipe_ingredients add constraint FK46reni0ysh3r8nh34h11spjll foreign key (dish_id) references recipe (id);
+
+create table recipe_steps_scan (
+    seq bigint not null auto_increment primary key,
+    dish_id bigint not null,
+    step varchar(1000)
+);
+
+insert into recipe_steps_scan (dish_id, step)
+select dish_id, step from recipe_steps;
+
+create table recipe_steps_ordered (
+    dish_id bigint not null,
+    step_order integer not null,
+    step varchar(1000),
+    primary key (dish_id, step_order)
+);
+
+insert into recipe_steps_ordered (dish_id, step_order, step)
+select dish_id, row_number() over (partition by dish_id order by seq) - 1, step from recipe_steps_scan;
+
+drop table recipe_steps_scan;
+drop table recipe_steps;
+alter table recipe_steps_ordered rename to recipe_steps;
+alter table recipe_steps add constraint FKjgevobyle1s95jhikj9en7nxk foreign key (dish_id) references recipe (id);
@@ -0,0 +1,2 @@
+-- plans saved before end dates were filled in are single-day plans; the calendar queries need the end
+update meal_plans set end_date = start_date where end_date is null and start_date is not null;
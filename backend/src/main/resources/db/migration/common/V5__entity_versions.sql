@@ -0,0 +1,5 @@
+-- optimistic locking: every update checks and bumps the row's version, and the API exposes it as the ETag
+alter table recipe add column version bigint default 0 not null;
+alter table meal_plans add column version bigint default 0 not null;
+alter table review add column version bigint default 0 not null;
+alter table technique add column version bigint default 0 not null;
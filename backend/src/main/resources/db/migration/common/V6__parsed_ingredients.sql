@@ -0,0 +1,12 @@
+-- Ingredient lines parsed into name, amount and unit when a recipe is written, so the shopping list
+-- doesn't parse them on every read. Recipes written before this have no rows until their next edit;
+-- the shopping list parses those on read.
+create table recipe_parsed_ingredients (
+    recipe_id bigint not null,
+    ingredient_order integer not null,
+    name varchar(255) not null,
+    quantity double precision,
+    unit varchar(32),
+    primary key (recipe_id, ingredient_order)
+);
+alter table recipe_parsed_ingredients add constraint fk_parsed_ingredients_recipe foreign key (recipe_id) references recipe (id);
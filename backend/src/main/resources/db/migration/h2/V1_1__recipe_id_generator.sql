@@ -0,0 +1,2 @@
+-- must match allocationSize on Recipe.id
+create sequence recipe_seq start with 1 increment by 50;
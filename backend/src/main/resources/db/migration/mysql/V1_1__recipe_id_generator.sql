@@ -0,0 +1,6 @@
+-- MySQL has no sequences; Hibernate keeps the pooled recipe id generator in a table
+create table recipe_seq (
+    next_val bigint
+);
+
+insert into recipe_seq values (1);
@@ -0,0 +1,5 @@
+-- Recipe ids used to come from AUTO_INCREMENT, and V1_1 created recipe_seq starting at 1.
+-- Move it past the ids already handed out; the pooled optimizer hands out (next_val - 50, next_val].
+update recipe_seq
+set next_val = (select coalesce(max(id), 0) + 50 from recipe)
+where next_val < (select coalesce(max(id), 0) + 50 from recipe);
@@ -0,0 +1,116 @@
+package com.example.backend;
+
+import com.example.backend.entity.Meal;
+import com.example.backend.entity.Recipe;
+import com.example.backend.entity.Review;
+import com.example.backend.entity.Technique;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SchemaMigrationTest {
+
+    private static final String[] LOCATIONS = {"classpath:db/migration/common", "classpath:db/migration/h2"};
+
+    @Test
+    void rowsWrittenBeforeTheMigrationsKeepTheirMeaning() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:cookbook-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations(LOCATIONS).target("2").load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into recipe (id, title, rating_sum, review_count) values (1, 'Dal', 0, 0)");
+        jdbcTemplate.update("insert into recipe (id, title, rating_sum, review_count) values (2, 'Rasam', 0, 0)");
+        // two recipes written in turn, so numbering per recipe has to regroup rows without reordering them
+        for (String step : List.of("Rinse lentils", "Simmer", "Temper spices")) {
+            jdbcTemplate.update("insert into recipe_steps (dish_id, step) values (1, ?)", step);
+            jdbcTemplate.update("insert into recipe_steps (dish_id, step) values (2, ?)", "Rasam: " + step);
+        }
+        jdbcTemplate.update("insert into recipe_ingredients (dish_id, ingredient) values (1, 'lentils')");
+        jdbcTemplate.update("insert into meal_plans (id, title, start_date) values (1, 'Monday', date '2026-01-05')");
+
+        Flyway.configure().dataSource(dataSource).locations(LOCATIONS).load().migrate();
+
+        List<Map<String, Object>> steps = jdbcTemplate.queryForList(
+                "select step_order, step from recipe_steps where dish_id = 1 order by step_order");
+        assertEquals(List.of(0, 1, 2), steps.stream().map(row -> row.get("step_order")).toList());
+        assertEquals(List.of("Rinse lentils", "Simmer", "Temper spices"), steps.stream().map(row -> row.get("step")).toList());
+        assertEquals(List.of("Rasam: Rinse lentils", "Rasam: Simmer", "Rasam: Temper spices"), jdbcTemplate.queryForList(
+                "select step from recipe_steps where dish_id = 2 order by step_order", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select ingredient_order from recipe_ingredients where dish_id = 1", Integer.class));
+        assertEquals("2026-01-05", jdbcTemplate.queryForObject(
+                "select end_date from meal_plans where id = 1", String.class));
+    }
+
+    @Test
+    void databaseLeftBySchemaUpdateIsBaselinedAndMigrated() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:cookbook-baseline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // the tables ddl-auto=update made from the entities before this schema was versioned
+        jdbcTemplate.execute("create table recipe (id bigint not null auto_increment, category varchar(255), "
+                + "description varchar(1000), rating double precision, title varchar(255) not null, primary key (id))");
+        jdbcTemplate.execute("create table recipe_images (recipe_id bigint not null, image_url varchar(1000))");
+        jdbcTemplate.execute("create table recipe_ingredients (dish_id bigint not null, ingredient varchar(255))");
+        jdbcTemplate.execute("create table recipe_steps (dish_id bigint not null, step varchar(1000))");
+        jdbcTemplate.execute("create table review (id bigint not null auto_increment, comment varchar(1000) not null, "
+                + "name varchar(255) not null, rating integer not null, primary key (id))");
+        jdbcTemplate.execute("create table technique (technique_id bigint not null auto_increment, "
+                + "description varchar(255), difficulty_level varchar(255), tags varchar(255), title varchar(255), "
+                + "video_tutorial varchar(255), primary key (technique_id))");
+        jdbcTemplate.execute("create table meal_plans (id bigint not null auto_increment, description text, "
+                + "end_date date, start_date date, title varchar(255), primary key (id))");
+        jdbcTemplate.update("insert into recipe (title, rating) values ('Dal', 4.5)");
+        jdbcTemplate.update("insert into recipe_steps (dish_id, step) values (1, 'Simmer')");
+        jdbcTemplate.update("insert into review (comment, name, rating) values ('Lovely', 'Asha', 5)");
+        jdbcTemplate.update("insert into meal_plans (title, start_date) values ('Monday', date '2026-01-05')");
+
+        // baseline-version in application.properties
+        Flyway.configure().dataSource(dataSource).locations(LOCATIONS)
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        validateAgainstEntities(dataSource);
+        assertEquals(0, jdbcTemplate.queryForObject("select review_count from recipe where id = 1", Integer.class));
+        assertNull(jdbcTemplate.queryForObject("select recipe_id from review", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select step_order from recipe_steps", Integer.class));
+        assertEquals("2026-01-05", jdbcTemplate.queryForObject("select end_date from meal_plans", String.class));
+    }
+
+    // what ddl-auto=validate checks at startup
+    private static void validateAgainstEntities(DataSource dataSource) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .build();
+        try {
+            new SchemaValidator().validate(new MetadataSources(registry)
+                    .addAnnotatedClass(Recipe.class)
+                    .addAnnotatedClass(Review.class)
+                    .addAnnotatedClass(Meal.class)
+                    .addAnnotatedClass(Technique.class)
+                    .buildMetadata(), registry);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Recipe recipe(long id) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle("Recipe " + id);
+        recipe.setDescription("A reasonably long description for recipe " + id + " that looks like real content.");
+        recipe.setIngredients(new ArrayList<>(Arrays.asList(
+                "2 cups flour", "1 tsp salt", "3 eggs", "200 ml milk", "1 tbsp butter", "ingredient " + id)));
+        recipe.setSteps(new ArrayList<>(Arrays.asList(
+                "Mix the dry ingredients.", "Whisk in the eggs and milk.", "Rest the batter for 10 minutes.",
+                "Cook in a hot buttered pan.")));
+        recipe.setCategory(id % 2 == 0 ? "Breakfast" : "Dinner");
+        recipe.setRating(4.5);
+        recipe.setImageUrls(new HashSet<>(Arrays.asList("/uploads/" + id + "_a.jpg", "/uploads/" + id + "_b.jpg")));
+        return recipe;
+    }
+
+    static List<Recipe> recipes(int count) {
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            recipes.add(recipe(i));
+        }
+        return recipes;
+    }
+}
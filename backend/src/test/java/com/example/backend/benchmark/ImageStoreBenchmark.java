@@ -0,0 +1,78 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.media.ImageStore;
+import com.example.backend.media.StoredImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The image half of {@code saveRecipe}: hashing an upload into a temp file and moving
+ * it to its content address. {@code fresh} uploads new bytes every time; otherwise the
+ * same bytes are stored again and hit the duplicate shortcut.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageStoreBenchmark {
+
+    @Param("524288")
+    private int imageBytes;
+
+    @Param({"true", "false"})
+    private boolean fresh;
+
+    private Path uploadDir;
+
+    private ImageStore imageStore;
+
+    private byte[] bytes;
+
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        uploadDir = Files.createTempDirectory("cookbook-bench-uploads");
+        imageStore = new ImageStore();
+        ReflectionTestUtils.setField(imageStore, "uploadDir", uploadDir.toString());
+        imageStore.init();
+        bytes = new byte[imageBytes];
+        new Random(42).nextBytes(bytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public StoredImage store() throws Exception {
+        if (fresh) {
+            // a new prefix is enough to change the hash
+            ByteBuffer.wrap(bytes).putLong(counter++);
+        }
+        return imageStore.store(new MockMultipartFile("images", "photo.jpg", "image/jpeg", bytes));
+    }
+}
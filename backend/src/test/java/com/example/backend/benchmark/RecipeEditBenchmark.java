@@ -0,0 +1,131 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.mapper.RecipeMapper;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One-field edits of a recipe with a long step list: a full PUT of the recipe against
+ * merge patches naming only the title or one step. Each trial prints the SQL statements
+ * an edit took on average, from Hibernate's statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeEditBenchmark {
+
+    @Param("60")
+    private int stepCount;
+
+    private ConfigurableApplicationContext context;
+
+    private RecipeService recipeService;
+
+    private Statistics statistics;
+
+    private Long recipeId;
+
+    private RecipeDTO fullRecipe;
+
+    private final JsonNode[] titlePatches = new JsonNode[2];
+
+    private final JsonNode[] stepPatches = new JsonNode[2];
+
+    private long edits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.jpa.properties.hibernate.generate_statistics=true")
+                .run();
+        recipeService = context.getBean(RecipeService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        Recipe recipe = BenchmarkData.recipe(1);
+        recipe.setId(null);
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < stepCount; i++) {
+            steps.add("Step " + i + ": do the next thing with care.");
+        }
+        recipe.setSteps(steps);
+        recipe = context.getBean(RecipeRepo.class).save(recipe);
+        recipeId = recipe.getId();
+        fullRecipe = context.getBean(RecipeMapper.class).toDto(recipe);
+
+        // alternate between two values so every edit is a real change
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < 2; i++) {
+            titlePatches[i] = objectMapper.valueToTree(Map.of("title", "Recipe title " + i));
+            List<String> edited = new ArrayList<>(steps);
+            edited.set(stepCount / 2, "Edited step " + i);
+            stepPatches[i] = objectMapper.valueToTree(Map.of("steps", edited));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        statistics.clear();
+        edits = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportCounts(BenchmarkParams params) {
+        System.out.printf("%n%s: %.2f statements per edit%n", params.getBenchmark(),
+                (double) statistics.getPrepareStatementCount() / Math.max(1, edits));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RecipeDTO putWholeRecipe() {
+        fullRecipe.setTitle("Recipe title " + (edits++ & 1));
+        return recipeService.updateRecipe(recipeId, fullRecipe, null);
+    }
+
+    @Benchmark
+    public RecipeDTO patchTitle() {
+        return recipeService.patchRecipe(recipeId, titlePatches[(int) (edits++ & 1)], null);
+    }
+
+    @Benchmark
+    public RecipeDTO patchOneStep() {
+        return recipeService.patchRecipe(recipeId, stepPatches[(int) (edits++ & 1)], null);
+    }
+}
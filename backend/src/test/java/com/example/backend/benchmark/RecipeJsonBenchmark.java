@@ -0,0 +1,71 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.mapper.RecipeMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson on the recipe hot paths: serializing a full {@code get-all} listing, and
+ * reading the JSON-encoded ingredient and step fields of a {@code save} multipart
+ * request the way the controller does ({@code readValue(json, List.class)}) against
+ * a reusable typed reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeJsonBenchmark {
+
+    @Param("1000")
+    private int recipeCount;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectReader stringListReader;
+
+    private List<RecipeDTO> recipes;
+
+    private String ingredientsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        stringListReader = objectMapper.readerFor(new TypeReference<List<String>>() {});
+        recipes = Mappers.getMapper(RecipeMapper.class).toDtoList(BenchmarkData.recipes(recipeCount));
+        ingredientsJson = objectMapper.writeValueAsString(recipes.get(0).getIngredients());
+    }
+
+    @Benchmark
+    public byte[] serializeRecipeList() throws Exception {
+        return objectMapper.writeValueAsBytes(recipes);
+    }
+
+    @Benchmark
+    public List<?> parseIngredientsUntyped() throws Exception {
+        return objectMapper.readValue(ingredientsJson, List.class);
+    }
+
+    @Benchmark
+    public List<String> parseIngredientsTyped() throws Exception {
+        return stringListReader.readValue(ingredientsJson);
+    }
+}
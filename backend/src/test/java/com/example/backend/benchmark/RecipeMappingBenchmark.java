@@ -0,0 +1,65 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.mapper.RecipeMapper;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a full listing of recipes to DTOs: reflective ModelMapper (the old
+ * getAllRecipes path) against the generated MapStruct mapper.
+ * Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeMappingBenchmark {
+
+    private static final Type RECIPE_DTO_LIST = new TypeToken<List<RecipeDTO>>() {}.getType();
+
+    @Param("10000")
+    private int recipeCount;
+
+    private List<Recipe> recipes;
+
+    private ModelMapper modelMapper;
+
+    private RecipeMapper recipeMapper;
+
+    @Setup
+    public void setUp() {
+        recipes = BenchmarkData.recipes(recipeCount);
+        modelMapper = new ModelMapper();
+        recipeMapper = Mappers.getMapper(RecipeMapper.class);
+    }
+
+    @Benchmark
+    public List<RecipeDTO> modelMapper() {
+        return modelMapper.map(recipes, RECIPE_DTO_LIST);
+    }
+
+    @Benchmark
+    public List<RecipeDTO> mapStruct() {
+        return recipeMapper.toDtoList(recipes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getAllRecipes} end to end through the repositories: the ingredient, step and
+ * image fetch queries plus MapStruct mapping. Runs against the in-memory H2 database
+ * the tests use (MySQL mode), so it measures the query shape and mapping rather than
+ * a real server's I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeServiceBenchmark {
+
+    @Param("2000")
+    private int recipeCount;
+
+    private ConfigurableApplicationContext context;
+
+    private RecipeService recipeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        recipeService = context.getBean(RecipeService.class);
+
+        List<Recipe> recipes = BenchmarkData.recipes(recipeCount);
+        recipes.forEach(recipe -> recipe.setId(null));
+        context.getBean(RecipeRepo.class).saveAll(recipes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RecipeDTO> getAllRecipes() {
+        return recipeService.getAllRecipes();
+    }
+}
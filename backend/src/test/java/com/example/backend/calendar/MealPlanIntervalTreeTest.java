@@ -0,0 +1,56 @@
+package com.example.backend.calendar;
+
+import com.example.backend.dto.MealDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MealPlanIntervalTreeTest {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void matchesBruteForceOverlap() {
+        Random random = new Random(42);
+        List<MealDTO> plans = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            LocalDate start = BASE.plusDays(random.nextInt(365));
+            LocalDate end = start.plusDays(random.nextInt(random.nextInt(10) == 0 ? 90 : 7));
+            plans.add(new MealDTO(id, "Plan " + id, null, start, end, null, null));
+        }
+        MealPlanIntervalTree tree = new MealPlanIntervalTree(plans);
+
+        for (int query = 0; query < 500; query++) {
+            LocalDate from = BASE.plusDays(random.nextInt(400) - 20);
+            LocalDate to = from.plusDays(random.nextInt(31));
+            List<Long> expected = plans.stream()
+                    .filter(plan -> !plan.getStartDate().isAfter(to) && !plan.getEndDate().isBefore(from))
+                    .sorted((a, b) -> a.getStartDate().equals(b.getStartDate())
+                            ? a.getId().compareTo(b.getId()) : a.getStartDate().compareTo(b.getStartDate()))
+                    .map(MealDTO::getId)
+                    .collect(Collectors.toList());
+            List<Long> actual = tree.overlapping(from, to).stream()
+                    .map(MealDTO::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, actual, "window " + from + ".." + to);
+        }
+    }
+
+    @Test
+    void singleDayPlansTouchTheirDayOnly() {
+        MealPlanIntervalTree tree = new MealPlanIntervalTree(List.of(
+                new MealDTO(1L, "Sunday roast", null, BASE, BASE, null, null),
+                new MealDTO(2L, "Undated", null, null, null, null, null)));
+
+        assertEquals(1, tree.size());
+        assertEquals(1, tree.overlapping(BASE, BASE).size());
+        assertEquals(0, tree.overlapping(BASE.plusDays(1), BASE.plusDays(7)).size());
+        assertEquals(0, tree.overlapping(BASE.minusDays(7), BASE.minusDays(1)).size());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void connectionsBeyondThePermitsWaitAndTimeOut() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(first, second, first);
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 2, 50);
+
+        Connection a = limited.getConnection();
+        Connection b = limited.getConnection();
+        assertEquals(0, limited.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+
+        a.close();
+        a.close();
+        assertEquals(1, limited.availablePermits());
+        verify(first, times(1)).close();
+
+        limited.getConnection().close();
+        b.close();
+        assertEquals(2, limited.availablePermits());
+    }
+
+    @Test
+    void failedCheckoutGivesThePermitBack() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, 50);
+
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+        assertEquals(1, limited.availablePermits());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backend.config;
+
+import com.example.backend.cache.ResponseCache;
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.entity.Technique;
+import com.example.backend.service.TechniqueService;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+// two separate in-memory databases stand in for the primary and its replica
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cookbook-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.replica.url=jdbc:h2:mem:cookbook-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.hikari.read-only=true"})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private TechniqueService techniqueService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(primary).update("delete from technique");
+        new JdbcTemplate(replica).update("delete from technique");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        responseCache.bumpVersion(Technique.class);
+    }
+
+    @Test
+    void readOnlyServiceReadsUseTheReplica() {
+        new JdbcTemplate(replica).update("insert into technique (title) values ('Julienne')");
+
+        List<TechniqueDTO> techniques = techniqueService.getAllTechniques();
+
+        assertEquals(1, techniques.size());
+        assertEquals("Julienne", techniques.get(0).getTitle());
+    }
+
+    @Test
+    void writesUseThePrimary() {
+        TechniqueDTO technique = new TechniqueDTO();
+        technique.setTitle("Brunoise");
+        techniqueService.saveTechnique(technique);
+
+        assertEquals(1, count(primary));
+        assertEquals(0, count(replica));
+    }
+
+    @Test
+    void aLaggingReplicaIsNeverCached() throws Exception {
+        // the primary has committed a row the replica hasn't applied yet
+        new JdbcTemplate(primary).update("insert into technique (title) values ('Chiffonade')");
+        new JdbcTemplate(replica).update("insert into technique (title) values ('Julienne')");
+        Long replicaId = new JdbcTemplate(replica).queryForObject("select technique_id from technique", Long.class);
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+
+        assertEquals("Julienne", techniqueService.getAllTechniques().get(0).getTitle());
+        assertFalse(cache.containsEntity(Technique.class, replicaId));
+
+        mockMvc.perform(get("/api/v1/technique/get-all-techniques"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Chiffonade"));
+        Long primaryId = new JdbcTemplate(primary).queryForObject("select technique_id from technique", Long.class);
+        assertTrue(cache.containsEntity(Technique.class, primaryId));
+    }
+
+    // Flyway only migrates the primary; copy the schema across before the
+    // startup loaders read from the replica. Benchmarks boot the app from the test classpath,
+    // where this class is scanned too, so it stays off without a replica.
+    @TestConfiguration
+    @ConditionalOnProperty(name = "spring.datasource.replica.url")
+    static class ReplicaSchema {
+
+        @Bean
+        Path replicaSchema(EntityManagerFactory entityManagerFactory, @Qualifier("primaryDataSource") DataSource primary,
+                           @Qualifier("replicaDataSource") DataSource replica) throws IOException {
+            Path schema = Files.createTempFile("cookbook-schema", ".sql");
+            try {
+                new JdbcTemplate(replica).execute("drop all objects");
+                new JdbcTemplate(primary).execute("script nodata to '" + schema + "'");
+                new JdbcTemplate(replica).execute("runscript from '" + schema + "'");
+            } finally {
+                Files.deleteIfExists(schema);
+            }
+            return schema;
+        }
+    }
+
+    private static int count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from technique", Integer.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.entity.Technique;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.ReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    @Autowired
+    private TechniqueRepo techniqueRepo;
+
+    private Long recipeId;
+
+    @BeforeEach
+    void setUp() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Shakshuka");
+        recipe.setRating(4.0);
+        recipe.setIngredients(new ArrayList<>(Arrays.asList("eggs", "tomatoes")));
+        recipe.setSteps(new ArrayList<>(Arrays.asList("Simmer the sauce", "Crack in the eggs")));
+        recipeId = recipeRepo.save(recipe).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepo.deleteAll();
+        recipeRepo.deleteAll();
+        techniqueRepo.deleteAll();
+    }
+
+    @Test
+    void recipeWritesNeedTheCurrentVersion() throws Exception {
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"").content("{\"title\":\"Green shakshuka\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // another client still holding version 0
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"").content("{\"title\":\"Red shakshuka\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/recipe/update/" + recipeId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"").content("{\"title\":\"Red shakshuka\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/recipe/delete/" + recipeId).header(HttpHeaders.IF_MATCH, "W/\"1\""))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("Green shakshuka", recipeRepo.findById(recipeId).get().getTitle());
+
+        mockMvc.perform(delete("/api/v1/recipe/delete/" + recipeId).header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isOk());
+        assertTrue(recipeRepo.findById(recipeId).isEmpty());
+    }
+
+    @Test
+    void techniqueBulkWritesCheckTheVersion() throws Exception {
+        Long id = techniqueRepo.save(new Technique(null, "Julienne", "Thin strips", null, "easy", "knife", null))
+                .getTechniqueId();
+        String edit = "{\"techniqueId\":" + id + ",\"title\":\"Julienne\",\"description\":\"Matchsticks\"}";
+
+        mockMvc.perform(put("/api/v1/technique/update/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"").content(edit))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/technique/update/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"").content(edit))
+                .andExpect(status().isOk());
+        assertEquals(1L, techniqueRepo.findById(id).get().getVersion());
+
+        mockMvc.perform(delete("/api/v1/technique/delete/" + id).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/technique/delete/" + id).header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+        assertTrue(techniqueRepo.findById(id).isEmpty());
+    }
+
+    @Test
+    void concurrentEditsConflictInsteadOfOverwritingAndReviewsLeaveTheVersionAlone() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicInteger saved = new AtomicInteger();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            // two editors saving back to back on one row while reviews hold its lock for their increments
+            for (int editor = 0; editor < 2; editor++) {
+                int first = editor * 10;
+                results.add(executor.submit(() -> {
+                    for (int n = first; n < first + 10; n++) {
+                        int status = mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                                        .content("{\"title\":\"Shakshuka " + n + "\"}"))
+                                .andReturn().getResponse().getStatus();
+                        // a lost race is reported, never replayed over the other editor's change
+                        assertTrue(status == 200 || status == 409, "status " + status);
+                        if (status == 200) {
+                            saved.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 40; i++) {
+                results.add(executor.submit(() -> reviewService.saveReview(ReviewDTO.builder()
+                        .name("Reviewer").comment("Comment").rating(4).recipeId(recipeId).build())));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // every accepted edit is one version, and none of the reviews counted as one
+        Recipe recipe = recipeRepo.findById(recipeId).get();
+        assertEquals(40, recipe.getReviewCount());
+        assertEquals(saved.get(), recipe.getVersion().intValue());
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                        .header(HttpHeaders.IF_MATCH, "\"" + saved.get() + "\"").content("{\"category\":\"Brunch\"}"))
+                .andExpect(status().isOk());
+    }
+}
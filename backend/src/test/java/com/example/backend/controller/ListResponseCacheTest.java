@@ -0,0 +1,86 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.TechniqueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TechniqueService techniqueService;
+
+    @Autowired
+    private TechniqueRepo techniqueRepo;
+
+    @BeforeEach
+    void setUp() {
+        techniqueService.saveTechnique(new TechniqueDTO(null, "Sear", "High heat", null, "Easy", "pan", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        techniqueRepo.deleteAll();
+    }
+
+    @Test
+    void unchangedListAnswersNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/technique/get-all-techniques"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Sear"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/technique/get-all-techniques").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void writeChangesTheEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/technique/get-all-techniques"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        techniqueService.saveTechnique(new TechniqueDTO(null, "Poach", "Gentle simmer", null, "Easy", "water", null));
+
+        String newEtag = mockMvc.perform(get("/api/v1/technique/get-all-techniques")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void gzipIsServedOnlyWhenAccepted() throws Exception {
+        // enough rows to pass the compression threshold
+        for (int i = 0; i < 20; i++) {
+            techniqueService.saveTechnique(new TechniqueDTO(null, "Braise " + i, "Low and slow, covered", null,
+                    "Medium", "pot", null));
+        }
+
+        mockMvc.perform(get("/api/v1/technique/get-all-techniques").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/v1/technique/get-all-techniques")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.length()").value(21));
+    }
+}
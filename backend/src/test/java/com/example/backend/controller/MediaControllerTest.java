@@ -0,0 +1,97 @@
+package com.example.backend.controller;
+
+import com.example.backend.media.ImageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MediaControllerTest {
+
+    private static final String HASHED = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef-320.jpg";
+    private static final String LEGACY = "c0ffee_old-upload.jpg";
+    // baseline uploads were stored as UUID_<original file name>
+    private static final String LEGACY_ORIGINAL_NAME = "c0ffee_Tarte tatin (2) + cream.jpg";
+    private static final String BODY = "0123456789";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.write(file(HASHED), BODY.getBytes(StandardCharsets.US_ASCII));
+        Files.write(file(LEGACY), BODY.getBytes(StandardCharsets.US_ASCII));
+        Files.write(file(LEGACY_ORIGINAL_NAME), BODY.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file(HASHED));
+        Files.deleteIfExists(file(LEGACY));
+        Files.deleteIfExists(file(LEGACY_ORIGINAL_NAME));
+    }
+
+    @Test
+    void contentAddressedFilesAreImmutable() throws Exception {
+        mockMvc.perform(get("/uploads/" + HASHED))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(content().string(BODY));
+
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASHED + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        mockMvc.perform(get("/uploads/" + LEGACY).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=3600"))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/uploads/" + HASHED).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+
+        mockMvc.perform(get("/uploads/" + LEGACY).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void servesLegacyUploadsUnderTheirOriginalNames() throws Exception {
+        mockMvc.perform(get("/uploads/{fileName}", LEGACY_ORIGINAL_NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void rejectsUnknownAndUnsafeNames() throws Exception {
+        mockMvc.perform(get("/uploads/missing.jpg")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/.hidden.tmp")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/{fileName}", "..\\application.properties")).andExpect(status().isNotFound());
+    }
+
+    private Path file(String name) {
+        return imageStore.getUploadPath().resolve(name);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.metrics.SqlCountHeaderAdvice;
+import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.TechniqueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"metrics.sql-count-header=true",
+        "management.endpoints.web.exposure.include=prometheus"})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TechniqueService techniqueService;
+
+    @Autowired
+    private TechniqueRepo techniqueRepo;
+
+    @AfterEach
+    void tearDown() {
+        techniqueRepo.deleteAll();
+    }
+
+    @Test
+    void responsesCarryTheirSqlCountAndMetricsAreScraped() throws Exception {
+        techniqueService.saveTechnique(new TechniqueDTO(null, "Braise", "Low and slow", null, "Medium", "pot", null));
+
+        String sqlCount = mockMvc.perform(get("/api/v1/recipe/get-page"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SqlCountHeaderAdvice.HEADER);
+        assertTrue(Long.parseLong(sqlCount) >= 1, "X-SQL-Count was " + sqlCount);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("cookbook_service_seconds_count{class=\"TechniqueServiceIMPL\","
+                        + "exception=\"none\",method=\"saveTechnique\",}")))
+                .andExpect(content().string(containsString("http_server_requests_sql_statements_count")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("hibernate_query_executions")));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipePageDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecipePageTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 12; i++) {
+            save("Recipe " + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void cursorWalkSeesEveryRecipeOnceDespiteInsertsMidWalk() {
+        List<Long> seen = new ArrayList<>();
+        RecipePageDTO page = recipeService.getRecipePage(null, PAGE_SIZE);
+        seen.addAll(ids(page.getContent()));
+
+        // rows added between pages land after the cursor, so nothing shifts under the walk
+        save("Added mid-walk 1");
+        save("Added mid-walk 2");
+        save("Added mid-walk 3");
+
+        int pages = 1;
+        while (page.isHasMore()) {
+            page = recipeService.getRecipePage(page.getNextCursor(), PAGE_SIZE);
+            seen.addAll(ids(page.getContent()));
+            pages++;
+        }
+
+        List<Long> expected = recipeRepo.findAll().stream().map(Recipe::getId).sorted().collect(Collectors.toList());
+        assertEquals(15, expected.size());
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertTrue(page.getContent().size() <= PAGE_SIZE);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() throws Exception {
+        String notANumber = Base64.getUrlEncoder().encodeToString("recipe:abc".getBytes(StandardCharsets.UTF_8));
+        String wrongPrefix = Base64.getUrlEncoder().encodeToString("meal:3".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", notANumber, wrongPrefix)) {
+            mockMvc.perform(get("/api/v1/recipe/get-page").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/v1/recipe/get-page")).andExpect(status().isOk());
+    }
+
+    private void save(String title) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setCategory("Dinner");
+        recipe.setIngredients(new ArrayList<>(Collections.singletonList("salt")));
+        recipe.setSteps(new ArrayList<>(Collections.singletonList("Cook it")));
+        recipeRepo.save(recipe);
+    }
+
+    private static List<Long> ids(List<RecipeDTO> recipes) {
+        return recipes.stream().map(RecipeDTO::getId).collect(Collectors.toList());
+    }
+}
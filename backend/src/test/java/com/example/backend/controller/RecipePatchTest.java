@@ -0,0 +1,97 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecipePatchTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    private Long recipeId;
+
+    @BeforeEach
+    void setUp() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Shakshuka");
+        recipe.setDescription("Eggs in tomato sauce");
+        recipe.setCategory("Breakfast");
+        recipe.setRating(4.0);
+        recipe.setIngredients(new ArrayList<>(Arrays.asList("eggs", "tomatoes", "cumin")));
+        recipe.setSteps(new ArrayList<>(Arrays.asList("Simmer the sauce", "Crack in the eggs", "Cover")));
+        recipe.setImageUrls(new HashSet<>(Arrays.asList("/uploads/a.jpg", "/uploads/b.jpg")));
+        recipeId = recipeRepo.save(recipe).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void onlyTheMembersSentChange() throws Exception {
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                        .content("{\"title\":\"Green shakshuka\",\"description\":null,"
+                                + "\"steps\":[\"Simmer the sauce\",\"Crack in the eggs\"],"
+                                + "\"imageUrls\":[\"/uploads/b.jpg\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Green shakshuka"))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.category").value("Breakfast"))
+                .andExpect(jsonPath("$.ingredients.length()").value(3))
+                .andExpect(jsonPath("$.steps.length()").value(2))
+                .andExpect(jsonPath("$.imageUrls.length()").value(1));
+    }
+
+    @Test
+    void invalidPatchesAreRejected() throws Exception {
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH).content("{\"rating\":5}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH).content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH).content("{\"steps\":\"Stir\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/recipe/" + recipeId).contentType(MERGE_PATCH)
+                        .content("{\"imageUrls\":[\"/uploads/a.jpg\",\"/uploads/other.jpg\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/recipe/" + (recipeId + 1000)).contentType(MERGE_PATCH).content("{}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void putCanDropImagesButNotAddOthers() throws Exception {
+        String body = "{\"title\":\"Shakshuka\",\"category\":\"Breakfast\",\"imageUrls\":%s}";
+        mockMvc.perform(put("/api/v1/recipe/update/" + recipeId).contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(body, "[\"/uploads/a.jpg\",\"/uploads/other.jpg\"]")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/recipe/update/" + recipeId).contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(body, "[\"/uploads/a.jpg\"]")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrls.length()").value(1))
+                .andExpect(jsonPath("$.imageUrls[0]").value("/uploads/a.jpg"));
+    }
+}
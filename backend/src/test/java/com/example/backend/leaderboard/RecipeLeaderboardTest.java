@@ -0,0 +1,98 @@
+package com.example.backend.leaderboard;
+
+import com.example.backend.dto.LeaderboardEntryDTO;
+import com.example.backend.dto.RecipeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeLeaderboardTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private RecipeLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new RecipeLeaderboard(24);
+        leaderboard.put(recipe(1L, "Omelette", "Breakfast", 4.2));
+        leaderboard.put(recipe(2L, "Pancakes", "Breakfast", 4.8));
+        leaderboard.put(recipe(3L, "Lasagne", "Dinner", 4.5));
+    }
+
+    @Test
+    void topRatedIsOrderedAndFollowsUpdates() {
+        assertEquals(List.of(2L, 3L, 1L), ids(leaderboard.topRated(null, 10)));
+        assertEquals(List.of(2L, 1L), ids(leaderboard.topRated("breakfast", 10)));
+
+        leaderboard.put(recipe(1L, "Omelette", "Dinner", 4.9));
+        assertEquals(List.of(1L, 2L), ids(leaderboard.topRated(null, 2)));
+        assertEquals(List.of(2L), ids(leaderboard.topRated("Breakfast", 10)));
+        assertEquals(List.of(1L, 3L), ids(leaderboard.topRated("Dinner", 10)));
+
+        leaderboard.remove(2L);
+        assertEquals(List.of(1L, 3L), ids(leaderboard.topRated(null, 10)));
+
+        // a review moves only the rating, and keeps the rest of the entry
+        leaderboard.rate(3L, 5.0, 12);
+        List<LeaderboardEntryDTO> top = leaderboard.topRated("dinner", 10);
+        assertEquals(List.of(3L, 1L), ids(top));
+        assertEquals("Lasagne", top.get(0).getTitle());
+        assertEquals(12, top.get(0).getReviewCount());
+    }
+
+    @Test
+    void recentReviewsOutweighOlderOnes() {
+        long now = System.currentTimeMillis();
+        // three reviews two days ago decay to 0.75 of a review; two from the last hour count almost fully
+        for (int i = 0; i < 3; i++) {
+            leaderboard.recordReview(1L, now - 48 * HOUR);
+        }
+        leaderboard.recordReview(3L, now - HOUR);
+        leaderboard.recordReview(3L, now);
+
+        List<LeaderboardEntryDTO> trending = leaderboard.trending(null, 10, now);
+        assertEquals(List.of(3L, 1L), ids(trending));
+        assertEquals(0.75, trending.get(1).getScore(), 1e-6);
+        assertTrue(trending.get(0).getScore() > 1.9);
+        assertEquals(List.of(1L), ids(leaderboard.trending("breakfast", 10, now)));
+
+        // a rebuild refreshes recipe details but keeps the review history
+        leaderboard.rebuild(sink -> {
+            sink.accept(recipe(1L, "Omelette", "Breakfast", 4.2));
+            sink.accept(recipe(3L, "Lasagne", "Dinner", 4.5));
+        });
+        assertEquals(List.of(3L, 1L), ids(leaderboard.trending(null, 10, now)));
+        assertEquals(List.of(3L, 1L), ids(leaderboard.topRated(null, 10)));
+    }
+
+    @Test
+    void rebuildKeepsChangesMadeWhileItLoads() {
+        // the source returns rows read before an edit, a delete and a new recipe that land while it runs
+        leaderboard.rebuild(sink -> {
+            sink.accept(recipe(1L, "Omelette", "Breakfast", 4.2));
+            leaderboard.put(recipe(1L, "Spanish Omelette", "Breakfast", 4.9));
+            leaderboard.remove(2L);
+            leaderboard.put(recipe(4L, "Risotto", "Dinner", 4.0));
+            sink.accept(recipe(2L, "Pancakes", "Breakfast", 4.8));
+            sink.accept(recipe(3L, "Lasagne", "Dinner", 4.5));
+        });
+
+        List<LeaderboardEntryDTO> top = leaderboard.topRated(null, 10);
+        assertEquals(List.of(1L, 3L, 4L), ids(top));
+        assertEquals("Spanish Omelette", top.get(0).getTitle());
+    }
+
+    private static RecipeDTO recipe(long id, String title, String category, double rating) {
+        return RecipeDTO.builder().id(id).title(title).category(category).rating(rating).build();
+    }
+
+    private static List<Long> ids(List<LeaderboardEntryDTO> entries) {
+        return entries.stream().map(LeaderboardEntryDTO::getRecipeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.BackendApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load run against the real controllers. Boots the application on a random
+ * port with the tests' in-memory H2 database, seeds recipes, reviews and images, then
+ * has a pool of client threads replay a weighted mix of requests for a fixed time and
+ * reports throughput and latency percentiles per endpoint.
+ *
+ * <p>Run with {@code mvn -Pload test-compile exec:exec -Dload.args="recipes=100000 reviews=1000000"}.
+ * Settings are {@code key=value} pairs; see {@link #DEFAULTS}. The mix is a list of
+ * {@code endpoint:weight} pairs.
+ */
+public class LoadHarness {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("recipes", "10000");
+        DEFAULTS.put("reviews", "50000");
+        DEFAULTS.put("images", "20");
+        DEFAULTS.put("threads", "16");
+        DEFAULTS.put("warmup-seconds", "15");
+        DEFAULTS.put("duration-seconds", "60");
+        DEFAULTS.put("mix", "get-all:30,save:10,update:20,delete:5,review:35");
+        DEFAULTS.put("report", "target/load-report.json");
+        // true runs requests on virtual threads (Java 21+), for comparing against the platform pool
+        DEFAULTS.put("virtual-threads", "false");
+    }
+
+    private static final String BOUNDARY = "----cookbook-load-boundary";
+
+    private final Map<String, String> settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private String baseUrl;
+    private LoadSeeder seeder;
+    private long[] recipeIds;
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private List<byte[]> images;
+    private String[] mix;
+    private int[] cumulativeWeights;
+
+    LoadHarness(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            for (String pair : arg.trim().split("\\s+")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                if (equals < 0 || !DEFAULTS.containsKey(pair.substring(0, equals))) {
+                    throw new IllegalArgumentException("Unknown setting: " + pair + " (known: " + DEFAULTS.keySet() + ")");
+                }
+                settings.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        new LoadHarness(settings).run();
+    }
+
+    void run() throws Exception {
+        parseMix(settings.get("mix"));
+        Path uploads = Files.createTempDirectory("cookbook-load-uploads");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "file.upload-dir=" + uploads,
+                        "execution.virtual-threads=" + settings.get("virtual-threads"))
+                .run();
+        try {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            seeder = new LoadSeeder(context);
+
+            long seedStarted = System.nanoTime();
+            images = seeder.images(Integer.parseInt(settings.get("images")));
+            List<String> imageUrls = seeder.storeImages(images);
+            recipeIds = seeder.recipes(Integer.parseInt(settings.get("recipes")), imageUrls);
+            seeder.reviews(Long.parseLong(settings.get("reviews")), recipeIds);
+            System.out.printf("Seeded %d recipes, %s reviews and %d images in %d s%n", recipeIds.length,
+                    settings.get("reviews"), images.size(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStarted));
+
+            LoadReport report = new LoadReport(new ArrayList<>(List.of(mix)));
+            drive(report);
+
+            double seconds = Integer.parseInt(settings.get("duration-seconds"));
+            report.print(seconds);
+            Path reportFile = Paths.get(settings.get("report"));
+            report.writeJson(reportFile, seconds, settings);
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private void drive(LoadReport report) throws InterruptedException {
+        int threads = Integer.parseInt(settings.get("threads"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Integer.parseInt(settings.get("warmup-seconds")));
+        long measureNanos = TimeUnit.SECONDS.toNanos(Integer.parseInt(settings.get("duration-seconds")));
+        long start = System.nanoTime();
+        long end = start + warmupNanos + measureNanos;
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    String endpoint = pick();
+                    long started = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = call(endpoint);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    report.record(endpoint, started, ok);
+                }
+            });
+        }
+        workers.shutdown();
+        TimeUnit.NANOSECONDS.sleep(warmupNanos);
+        report.reset();
+        System.out.printf("Warm-up done, measuring for %s s with %d threads%n", settings.get("duration-seconds"), threads);
+        if (!workers.awaitTermination(measureNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private boolean call(String endpoint) throws Exception {
+        switch (endpoint) {
+            case "get-all":
+                return send(HttpRequest.newBuilder(uri("/api/v1/recipe/get-all"))
+                        .header("Accept-Encoding", "gzip").GET());
+            case "save":
+                return sendText(HttpRequest.newBuilder(uri("/api/v1/recipe/save"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(multipartRecipe())));
+            case "update": {
+                long id = liveRecipe();
+                Map<String, Object> recipe = seeder.recipe(id, List.of());
+                recipe.put("title", "Updated recipe " + id);
+                return send(HttpRequest.newBuilder(uri("/api/v1/recipe/update/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(recipe))));
+            }
+            case "delete": {
+                long id = liveRecipe();
+                deleted.add(id);
+                return sendText(HttpRequest.newBuilder(uri("/api/v1/recipe/delete/" + id)).DELETE());
+            }
+            case "review": {
+                Map<String, Object> review = new LinkedHashMap<>();
+                review.put("name", "Load tester");
+                review.put("comment", "Tried it during a load run");
+                review.put("rating", 1 + ThreadLocalRandom.current().nextInt(5));
+                review.put("recipeId", liveRecipe());
+                return send(HttpRequest.newBuilder(uri("/api/v1/review/save"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(review))));
+            }
+            default:
+                throw new IllegalStateException(endpoint);
+        }
+    }
+
+    private boolean send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() < 400;
+    }
+
+    // save and delete answer 200 with an "Error ..." body when they fail
+    private boolean sendText(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() < 400 && !response.body().startsWith("Error");
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private long liveRecipe() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 16; attempt++) {
+            long id = recipeIds[random.nextInt(recipeIds.length)];
+            if (!deleted.contains(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("most seeded recipes have been deleted; lower the delete weight");
+    }
+
+    private byte[] multipartRecipe() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> recipe = seeder.recipe(random.nextLong(1_000_000), List.of());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        field(body, "title", (String) recipe.get("title"));
+        field(body, "description", (String) recipe.get("description"));
+        field(body, "ingredients", objectMapper.writeValueAsString(recipe.get("ingredients")));
+        field(body, "steps", objectMapper.writeValueAsString(recipe.get("steps")));
+        field(body, "category", (String) recipe.get("category"));
+        field(body, "rating", "0");
+        if (!images.isEmpty()) {
+            body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"images\"; filename=\"photo.jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(images.get(random.nextInt(images.size())));
+            body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static void field(ByteArrayOutputStream body, String name, String value) {
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void parseMix(String spec) {
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1]);
+            if (!List.of("get-all", "save", "update", "delete", "review").contains(parts[0]) || weight < 0) {
+                throw new IllegalArgumentException("Bad mix entry: " + entry);
+            }
+            if (weight > 0) {
+                names.add(parts[0]);
+                weights.add(weight);
+            }
+        }
+        mix = names.toArray(new String[0]);
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    private String pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return mix[i];
+            }
+        }
+        return mix[mix.length - 1];
+    }
+}
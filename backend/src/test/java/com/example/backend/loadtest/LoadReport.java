@@ -0,0 +1,105 @@
+package com.example.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per endpoint. Latencies are recorded in
+ * microseconds, up to one minute, with three significant digits.
+ */
+class LoadReport {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    LoadReport(Iterable<String> names) {
+        for (String name : names) {
+            endpoints.put(name, new Endpoint());
+        }
+    }
+
+    void record(String endpoint, long startedNanos, boolean ok) {
+        Endpoint stats = endpoints.get(endpoint);
+        long micros = (System.nanoTime() - startedNanos) / 1_000;
+        stats.latency.recordValue(Math.min(Math.max(micros, 1), MAX_MICROS));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    // called when warm-up ends so only the measured window counts
+    void reset() {
+        for (Endpoint stats : endpoints.values()) {
+            stats.latency.reset();
+            stats.errors.reset();
+        }
+    }
+
+    void print(double seconds) {
+        System.out.printf(Locale.ROOT, "%-12s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(MAX_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram latency = entry.getValue().latency.copy();
+            long errors = entry.getValue().errors.sum();
+            total.add(latency);
+            totalErrors += errors;
+            printRow(entry.getKey(), latency, errors, seconds);
+        }
+        printRow("total", total, totalErrors, seconds);
+    }
+
+    void writeJson(Path file, double seconds, Map<String, String> settings) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"durationSeconds\": " + seconds + ",\n  \"settings\": {");
+            String separator = "\n";
+            for (Map.Entry<String, String> setting : settings.entrySet()) {
+                writer.write(separator + "    \"" + setting.getKey() + "\": \"" + setting.getValue() + "\"");
+                separator = ",\n";
+            }
+            writer.write("\n  },\n  \"endpoints\": {");
+            separator = "\n";
+            for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+                Histogram latency = entry.getValue().latency.copy();
+                writer.write(String.format(Locale.ROOT, "%s    \"%s\": {\"requests\": %d, \"throughput\": %.2f, "
+                                + "\"errors\": %d, \"p50Ms\": %.3f, \"p90Ms\": %.3f, \"p99Ms\": %.3f, "
+                                + "\"p999Ms\": %.3f, \"maxMs\": %.3f}",
+                        separator, entry.getKey(), latency.getTotalCount(), latency.getTotalCount() / seconds,
+                        entry.getValue().errors.sum(), millis(latency, 50), millis(latency, 90),
+                        millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1000.0));
+                separator = ",\n";
+            }
+            writer.write("\n  }\n}\n");
+        }
+    }
+
+    private static void printRow(String name, Histogram latency, long errors, double seconds) {
+        System.out.printf(Locale.ROOT, "%-12s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, latency.getTotalCount(), latency.getTotalCount() / seconds, errors,
+                millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.dto.ImportResultDTO;
+import com.example.backend.media.ImageStore;
+import com.example.backend.media.StoredImage;
+import com.example.backend.service.RecipeTransferService;
+import com.example.backend.service.ReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills the database before a load run. Recipes go through the regular NDJSON import so
+ * they're batched and indexed like production data; reviews are bulk inserted with JDBC
+ * and the rating aggregates rebuilt afterwards, since ten million service calls would
+ * take longer than the run itself.
+ */
+class LoadSeeder {
+
+    private static final String[] CATEGORIES = {"Breakfast", "Lunch", "Dinner", "Dessert", "Snack", "Drinks"};
+    private static final String[] INGREDIENTS = {"2 cups flour", "1 tsp salt", "3 eggs", "200 ml milk",
+            "1 tbsp butter", "2 cloves garlic", "1 onion, chopped", "400g tomatoes", "1 cup rice", "olive oil"};
+
+    private static final int REVIEW_BATCH = 5_000;
+
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random(42);
+
+    LoadSeeder(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    List<byte[]> images(int count) throws IOException {
+        List<byte[]> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            for (int stripe = 0; stripe < 12; stripe++) {
+                graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+                graphics.fillRect(stripe * 800 / 12, 0, 800 / 12 + 1, 600);
+            }
+            graphics.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            images.add(out.toByteArray());
+        }
+        return images;
+    }
+
+    List<String> storeImages(List<byte[]> images) throws IOException {
+        ImageStore imageStore = context.getBean(ImageStore.class);
+        List<String> urls = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            StoredImage stored = imageStore.store(
+                    new MockMultipartFile("images", "seed-" + i + ".jpg", "image/jpeg", images.get(i)));
+            urls.add(stored.getUrl());
+        }
+        return urls;
+    }
+
+    long[] recipes(int count, List<String> imageUrls) throws IOException {
+        Path ndjson = Files.createTempFile("cookbook-load-recipes", ".ndjson");
+        try {
+            try (Writer writer = Files.newBufferedWriter(ndjson, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < count; i++) {
+                    writer.write(objectMapper.writeValueAsString(recipe(i, imageUrls)));
+                    writer.write('\n');
+                }
+            }
+            try (InputStream in = Files.newInputStream(ndjson)) {
+                ImportResultDTO result = context.getBean(RecipeTransferService.class)
+                        .importRecipes(in, RecipeTransferService.FORMAT_NDJSON);
+                if (result.getFailed() > 0) {
+                    throw new IllegalStateException("seeding failed: " + result.getErrors());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(ndjson);
+        }
+        List<Long> ids = context.getBean(JdbcTemplate.class).queryForList("select id from recipe order by id", Long.class);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    void reviews(long count, long[] recipeIds) {
+        if (count == 0 || recipeIds.length == 0) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<Object[]> batch = new ArrayList<>(REVIEW_BATCH);
+        for (long i = 0; i < count; i++) {
+            batch.add(new Object[]{"Reviewer " + i % 1000, "Seeded review " + i, 1 + random.nextInt(5),
+                    recipeIds[random.nextInt(recipeIds.length)],
+                    Timestamp.from(now.minusSeconds(random.nextInt(90 * 24 * 3600)))});
+            if (batch.size() == REVIEW_BATCH || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into review (name, comment, rating, recipe_id, created_at) values (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        context.getBean(ReviewService.class).rebuildRatingAggregates();
+    }
+
+    Map<String, Object> recipe(long n, List<String> imageUrls) {
+        Map<String, Object> recipe = new LinkedHashMap<>();
+        recipe.put("title", "Load recipe " + n);
+        recipe.put("description", "Generated recipe " + n + " with a description of realistic length for a listing.");
+        recipe.put("category", CATEGORIES[(int) (n % CATEGORIES.length)]);
+        List<String> ingredients = new ArrayList<>();
+        for (int i = 0; i < 4 + random.nextInt(6); i++) {
+            ingredients.add(INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+        }
+        recipe.put("ingredients", ingredients);
+        recipe.put("steps", Arrays.asList("Prepare the ingredients.", "Cook for " + (5 + n % 40) + " minutes.",
+                "Season and serve."));
+        if (!imageUrls.isEmpty()) {
+            recipe.put("imageUrls", List.of(imageUrls.get((int) (n % imageUrls.size()))));
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.backend.media;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"media.variant-widths=64,128", "media.display-width=128"})
+class ImagePipelineTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.findAll().forEach(recipe -> recipeService.deleteRecipe(recipe.getId(), null));
+    }
+
+    @Test
+    void identicalUploadsAreStoredOnceAndResizedInTheBackground() throws Exception {
+        byte[] png = png(400, 300);
+        List<MultipartFile> images = Arrays.asList(
+                new MockMultipartFile("images", "photo.png", "image/png", png),
+                new MockMultipartFile("images", "copy-of-photo.PNG", "image/png", png));
+
+        recipeService.saveRecipe(recipe("Roast"), images);
+
+        String hash = awaitDisplayVariant();
+        assertTrue(Files.exists(imageStore.variantPath(hash, 64, "jpg")));
+        assertTrue(Files.exists(imageStore.variantPath(hash, 128, "jpg")));
+        assertEquals(1, recipeService.getAllRecipes().get(0).getImageUrls().size());
+    }
+
+    @Test
+    void sharedImagesSurviveDeletingOneRecipe() throws Exception {
+        byte[] png = png(200, 200);
+        recipeService.saveRecipe(recipe("First"),
+                Collections.singletonList(new MockMultipartFile("images", "a.png", "image/png", png)));
+        recipeService.saveRecipe(recipe("Second"),
+                Collections.singletonList(new MockMultipartFile("images", "b.png", "image/png", png)));
+        awaitDisplayVariant();
+
+        List<RecipeDTO> recipes = recipeService.getAllRecipes();
+        String url = recipes.get(0).getImageUrls().iterator().next();
+        String hash = imageStore.hashOf(url);
+
+        recipeService.deleteRecipe(recipes.get(0).getId(), null);
+        assertTrue(Files.exists(imageStore.variantPath(hash, 64, "jpg")));
+
+        recipeService.deleteRecipe(recipes.get(1).getId(), null);
+        assertFalse(Files.exists(imageStore.variantPath(hash, 64, "jpg")));
+    }
+
+    @Test
+    void imagesStayWhenTheDeleteRollsBack() throws Exception {
+        recipeService.saveRecipe(recipe("Kept"),
+                Collections.singletonList(new MockMultipartFile("images", "c.png", "image/png", png(200, 200))));
+        String hash = awaitDisplayVariant();
+        Long id = recipeService.getAllRecipes().get(0).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            recipeService.deleteRecipe(id, null);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(recipeRepo.existsById(id));
+        assertTrue(Files.exists(imageStore.variantPath(hash, 64, "jpg")));
+    }
+
+    @Test
+    void legacyImagesSurviveWhileAnotherRecipeStillUsesThem() throws Exception {
+        Path legacyFile = Paths.get(uploadDir).resolve("legacy-shared.jpg");
+        Files.write(legacyFile, png(10, 10));
+        Long first = saveWithImage("First", ImageStore.URL_PREFIX + "legacy-shared.jpg");
+        Long second = saveWithImage("Second", ImageStore.URL_PREFIX + "legacy-shared.jpg");
+
+        recipeService.deleteRecipe(first, null);
+        assertTrue(Files.exists(legacyFile));
+
+        recipeService.deleteRecipe(second, null);
+        assertFalse(Files.exists(legacyFile));
+    }
+
+    private Long saveWithImage(String title, String imageUrl) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setImageUrls(new HashSet<>(Collections.singletonList(imageUrl)));
+        return recipeRepo.save(recipe).getId();
+    }
+
+    private String awaitDisplayVariant() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            List<RecipeDTO> recipes = recipeService.getAllRecipes();
+            boolean allResized = recipes.stream()
+                    .map(RecipeDTO::getImageUrls)
+                    .flatMap(Set::stream)
+                    .allMatch(url -> url.endsWith("-128.jpg"));
+            if (allResized) {
+                return imageStore.hashOf(recipes.get(0).getImageUrls().iterator().next());
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("variants were not generated in time");
+    }
+
+    private static RecipeDTO recipe(String title) {
+        RecipeDTO recipeDTO = new RecipeDTO();
+        recipeDTO.setTitle(title);
+        recipeDTO.setIngredients(Collections.singletonList("potato"));
+        recipeDTO.setSteps(Collections.singletonList("Roast it"));
+        return recipeDTO;
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.PantryMatchDTO;
+import com.example.backend.dto.RecipeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PantryMatchIndexTest {
+
+    private PantryMatchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PantryMatchIndex();
+        index.put(recipe(1L, "Omelette", "3 eggs", "1 tbsp butter", "Salt"));
+        index.put(recipe(2L, "Pancakes", "2 cups flour", "2 eggs", "300 ml milk", "1 tbsp butter"));
+        index.put(recipe(3L, "Guacamole", "2 avocados", "1 lime", "salt", "1 onion, finely chopped"));
+    }
+
+    @Test
+    void ranksByCoverageAndListsMissingIngredients() {
+        List<PantryMatchDTO> matches = index.match(Arrays.asList("egg", "butter", "salt", "milk"), 10, 0.0);
+
+        assertEquals(3, matches.size());
+        assertEquals(Long.valueOf(1L), matches.get(0).getRecipeId());
+        assertEquals(1.0, matches.get(0).getCoverage());
+        assertEquals(Long.valueOf(2L), matches.get(1).getRecipeId());
+        assertEquals(Collections.singletonList("flour"), matches.get(1).getMissingIngredients());
+        assertEquals(Long.valueOf(3L), matches.get(2).getRecipeId());
+    }
+
+    @Test
+    void appliesLimitMinCoverageAndRemovals() {
+        assertEquals(1, index.match(Arrays.asList("eggs", "butter", "salt"), 1, 0.0).size());
+        assertEquals(1, index.match(Arrays.asList("eggs", "butter", "salt"), 10, 0.8).size());
+
+        index.remove(1L);
+        List<PantryMatchDTO> matches = index.match(Arrays.asList("eggs", "butter", "salt"), 10, 0.0);
+        assertTrue(matches.stream().noneMatch(match -> match.getRecipeId() == 1L));
+    }
+
+    @Test
+    void keepsChangesMadeDuringARebuild() {
+        // the rebuild streams rows read before an edit and a delete that land halfway through it
+        long size = index.rebuild(consumer -> {
+            consumer.accept(recipe(1L, "Omelette", "3 eggs", "1 tbsp butter", "Salt"));
+            index.put(recipe(2L, "Crepes", "1 cup flour", "2 eggs", "300 ml milk"));
+            index.remove(3L);
+            consumer.accept(recipe(2L, "Pancakes", "2 cups flour", "2 eggs", "300 ml milk", "1 tbsp butter"));
+            consumer.accept(recipe(3L, "Guacamole", "2 avocados", "1 lime", "salt", "1 onion, finely chopped"));
+        });
+
+        assertEquals(2, size);
+        List<PantryMatchDTO> matches = index.match(Arrays.asList("flour", "eggs", "milk", "lime"), 10, 0.0);
+        assertEquals(2, matches.size());
+        assertEquals("Crepes", matches.get(0).getTitle());
+        assertEquals(1.0, matches.get(0).getCoverage());
+    }
+
+    private static RecipeDTO recipe(Long id, String title, String... ingredients) {
+        RecipeDTO recipe = new RecipeDTO();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        recipe.setIngredients(Arrays.asList(ingredients));
+        return recipe;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipeSearchResultDTO;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.SearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RecipeSearchIndexTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        save("Butter Chicken", "Creamy tomato curry", "Dinner", "chicken", "butter", "tomato");
+        save("Chicken Fried Rice", "Wok fried leftovers", "Dinner", "rice", "chicken", "egg");
+        save("Spaghetti Carbonara", "Roman pasta", "Dinner", "spaghetti", "egg", "pecorino");
+        save("Banana Pancakes", "Fluffy and sweet", "Breakfast", "banana", "flour", "egg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.deleteAll();
+        searchService.reindexRecipes();
+    }
+
+    @Test
+    void matchesIngredientsAndCountsCategoryFacets() {
+        RecipeSearchResultDTO result = searchService.searchRecipes("egg", null, null, null);
+
+        assertEquals(3, result.getTotalHits());
+        assertEquals(Long.valueOf(2), result.getCategoryFacets().get("Dinner"));
+        assertEquals(Long.valueOf(1), result.getCategoryFacets().get("Breakfast"));
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        assertEquals("Spaghetti Carbonara",
+                searchService.searchRecipes("spag", null, null, null).getHits().get(0).getTitle());
+        assertEquals(2, searchService.searchRecipes("chikcen", null, null, null).getTotalHits());
+    }
+
+    @Test
+    void categoryFilterAndDeletesAreApplied() {
+        assertEquals(1, searchService.searchRecipes("egg", "Breakfast", null, null).getTotalHits());
+
+        Long pancakesId = searchService.searchRecipes("pancakes", null, null, null).getHits().get(0).getId();
+        recipeService.deleteRecipe(pancakesId, null);
+
+        assertEquals(0, searchService.searchRecipes("pancakes", null, null, null).getTotalHits());
+    }
+
+    @Test
+    void changesMadeDuringARebuildAreKept() {
+        List<RecipeDTO> snapshot = recipeService.getAllRecipes();
+        RecipeDTO renamed = new RecipeDTO();
+        renamed.setId(snapshot.get(0).getId());
+        renamed.setTitle("Murgh Makhani");
+        renamed.setCategory(snapshot.get(0).getCategory());
+        Long deletedId = snapshot.get(3).getId();
+
+        // the rebuild streams rows read before an edit and a delete that commit halfway through it
+        long count = recipeSearchIndex.rebuild(consumer -> {
+            consumer.accept(snapshot.get(0));
+            consumer.accept(snapshot.get(1));
+            recipeSearchIndex.index(renamed);
+            recipeSearchIndex.remove(deletedId);
+            consumer.accept(snapshot.get(2));
+            consumer.accept(snapshot.get(3));
+        });
+
+        assertEquals(4, count);
+        assertEquals(3, recipeSearchIndex.size());
+        assertEquals(1, searchService.searchRecipes("makhani", null, null, null).getTotalHits());
+        assertEquals(0, searchService.searchRecipes(snapshot.get(3).getTitle(), null, null, null).getTotalHits());
+    }
+
+    @Test
+    void aFailedRebuildLeavesTheOldIndexInPlace() throws Exception {
+        List<RecipeDTO> snapshot = recipeService.getAllRecipes();
+        RecipeDTO renamed = new RecipeDTO();
+        renamed.setId(snapshot.get(0).getId());
+        renamed.setTitle("Murgh Makhani");
+        renamed.setCategory(snapshot.get(0).getCategory());
+
+        assertThrows(IllegalStateException.class, () -> recipeSearchIndex.rebuild(consumer -> {
+            consumer.accept(snapshot.get(1));
+            recipeSearchIndex.index(renamed);
+            throw new IllegalStateException("database went away");
+        }));
+        recipeSearchIndex.commit();
+
+        assertEquals(4, recipeSearchIndex.size());
+        assertEquals(3, searchService.searchRecipes("egg", null, null, null).getTotalHits());
+        assertEquals(1, searchService.searchRecipes("makhani", null, null, null).getTotalHits());
+
+        // the writer that replaced the rolled-back one takes further changes
+        recipeSearchIndex.remove(renamed.getId());
+        assertEquals(3, recipeSearchIndex.size());
+    }
+
+    @Test
+    void ratingsAreUpdatedInPlace() {
+        Long carbonaraId = searchService.searchRecipes("carbonara", null, null, null).getHits().get(0).getId();
+
+        recipeSearchIndex.updateRating(carbonaraId, 4.5);
+
+        assertEquals(4.5, searchService.searchRecipes("carbonara", null, null, null).getHits().get(0).getRating());
+        assertEquals(1, searchService.searchRecipes("pecorino", null, null, null).getTotalHits());
+    }
+
+    @Test
+    void farOffPagesAreEmpty() {
+        RecipeSearchResultDTO result = searchService.searchRecipes("egg", null, Integer.MAX_VALUE, 50);
+
+        assertEquals(3, result.getTotalHits());
+        assertTrue(result.getHits().isEmpty());
+    }
+
+    private void save(String title, String description, String category, String... ingredients) throws Exception {
+        RecipeDTO recipeDTO = new RecipeDTO();
+        recipeDTO.setTitle(title);
+        recipeDTO.setDescription(description);
+        recipeDTO.setCategory(category);
+        recipeDTO.setIngredients(Arrays.asList(ingredients));
+        recipeDTO.setSteps(Collections.singletonList("Cook it"));
+        recipeService.saveRecipe(recipeDTO, null);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.ReviewService;
+import com.example.backend.service.TechniqueService;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogueCacheTest {
+
+    @Autowired
+    private TechniqueService techniqueService;
+
+    @Autowired
+    private TechniqueRepo techniqueRepo;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        techniqueService.saveTechnique(new TechniqueDTO(null, "Julienne", "Thin strips", null, "Easy", "knife", null));
+        techniqueService.saveTechnique(new TechniqueDTO(null, "Braise", "Low and slow", null, "Medium", "heat", null));
+        reviewService.saveReview(ReviewDTO.builder().name("Ann").comment("Lovely").rating(5).build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        techniqueRepo.deleteAll();
+        reviewRepo.deleteAll();
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void repeatedListingIsServedFromCache() {
+        techniqueService.getAllTechniques();
+        statistics.clear();
+
+        List<TechniqueDTO> techniques = techniqueService.getAllTechniques();
+
+        assertEquals(2, techniques.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updateEvictsCachedListing() {
+        ReviewDTO review = reviewService.getAllReviews().get(0);
+        review.setComment("Even better the second time");
+
+        reviewService.updateReview(review.getId(), review, null);
+        statistics.clear();
+        List<ReviewDTO> after = reviewService.getAllReviews();
+
+        assertEquals("Even better the second time", after.get(0).getComment());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void reviewsKeepOtherRecipesCached() {
+        Long reviewed = recipeRepo.save(recipe("Shakshuka")).getId();
+        Long other = recipeRepo.save(recipe("Menemen")).getId();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.containsEntity(Recipe.class, other));
+
+        reviewService.saveReview(ReviewDTO.builder().name("Ann").comment("Lovely").rating(5).recipeId(reviewed).build());
+
+        assertTrue(cache.containsEntity(Recipe.class, other));
+        assertEquals(1, recipeRepo.findById(reviewed).get().getReviewCount());
+    }
+
+    private static Recipe recipe(String title) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setRating(0.0);
+        return recipe;
+    }
+}
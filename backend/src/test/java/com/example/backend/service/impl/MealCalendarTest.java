@@ -0,0 +1,96 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.calendar.ActiveMealPlanCache;
+import com.example.backend.dto.MealDTO;
+import com.example.backend.entity.Meal;
+import com.example.backend.repo.MealRepo;
+import com.example.backend.service.MealService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MealCalendarTest {
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private MealRepo mealRepo;
+
+    @Autowired
+    private ActiveMealPlanCache activeMealPlanCache;
+
+    @AfterEach
+    void tearDown() {
+        mealRepo.deleteAll();
+        activeMealPlanCache.load(activeMealPlanCache.getWindowStart(), List.of());
+    }
+
+    @Test
+    void recentWindowsComeFromMemoryAndOldOnesFromTheDatabase() {
+        LocalDate today = LocalDate.now();
+        Meal thisWeek = mealService.saveMeal(meal("This week", today.minusDays(2), today.plusDays(4)));
+        Meal tomorrow = mealService.saveMeal(meal("Tomorrow", today.plusDays(1), null));
+        Meal lastYear = mealService.saveMeal(meal("Last year", today.minusYears(1), today.minusYears(1).plusDays(6)));
+
+        assertTrue(activeMealPlanCache.covers(today));
+        assertEquals(2, activeMealPlanCache.size());
+        assertEquals(List.of(thisWeek.getId()), ids(mealService.getMealsInRange(today, today)));
+        assertEquals(List.of(thisWeek.getId(), tomorrow.getId()),
+                ids(mealService.getMealsInRange(today, today.plusDays(7))));
+
+        LocalDate old = today.minusYears(1).plusDays(3);
+        assertFalse(activeMealPlanCache.covers(old));
+        assertEquals(List.of(lastYear.getId()), ids(mealService.getMealsInRange(old, old)));
+
+        mealService.deleteMeal(thisWeek.getId(), null);
+        assertEquals(List.of(tomorrow.getId()), ids(mealService.getMealsInRange(today, today.plusDays(7))));
+    }
+
+    @Test
+    void refreshKeepsPlansSavedWhileItReads() {
+        LocalDate today = LocalDate.now();
+        Meal thisWeek = mealService.saveMeal(meal("This week", today.minusDays(2), today.plusDays(4)));
+        List<MealDTO> readBefore = mealService.getMealsInRange(today, today);
+        List<Meal> savedMeanwhile = new ArrayList<>();
+
+        // the refresh's rows were read before a save and a delete that commit before it swaps them in
+        activeMealPlanCache.load(activeMealPlanCache.getWindowStart(), () -> {
+            savedMeanwhile.add(mealService.saveMeal(meal("Tomorrow", today.plusDays(1), null)));
+            mealService.deleteMeal(thisWeek.getId(), null);
+            return readBefore;
+        });
+
+        assertEquals(List.of(savedMeanwhile.get(0).getId()),
+                ids(mealService.getMealsInRange(today, today.plusDays(7))));
+    }
+
+    @Test
+    void rejectsBackwardsPlansAndRanges() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> mealService.saveMeal(meal("Backwards", today, today.minusDays(1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> mealService.getMealsInRange(today, today.minusDays(1)));
+    }
+
+    private static Meal meal(String title, LocalDate start, LocalDate end) {
+        return new Meal(null, title, null, start, end, new ArrayList<>(), null);
+    }
+
+    private static List<Long> ids(List<MealDTO> meals) {
+        return meals.stream().map(MealDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.entity.Review;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.service.ReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestPropertySource(properties = {"review.rating.prior-mean=3.0", "review.rating.prior-weight=5"})
+class RatingAggregateTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    private Long recipeId;
+
+    @BeforeEach
+    void setUp() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Shakshuka");
+        recipe.setRating(4.0);
+        recipeId = recipeRepo.save(recipe).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepo.deleteAll();
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void reviewWritesKeepAggregateInStep() {
+        reviewService.saveReview(review(5));
+        reviewService.saveReview(review(4));
+        reviewService.saveReview(review(3));
+        assertAggregate(3, 12);
+
+        Long firstId = reviewRepo.findAll().stream()
+                .filter(review -> review.getRating() == 5).findFirst().get().getId();
+        reviewService.updateReview(firstId, ReviewDTO.builder().name("Ann").comment("Still good").rating(1).build(), null);
+        assertAggregate(3, 8);
+
+        reviewService.deleteReview(firstId, null);
+        assertAggregate(2, 7);
+    }
+
+    @Test
+    void concurrentReviewsAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 80; i++) {
+                int rating = 1 + i % 5;
+                results.add(executor.submit(() -> reviewService.saveReview(review(rating))));
+            }
+            for (Future<String> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertAggregate(80, 240);
+    }
+
+    @Test
+    void rebuildRecomputesFromReviews() {
+        reviewService.saveReview(review(5));
+        reviewService.saveReview(review(5));
+        reviewRepo.save(Review.builder().name("Bulk").comment("Loaded directly").rating(2).recipeId(recipeId).build());
+        assertAggregate(2, 10);
+
+        reviewService.rebuildRatingAggregates();
+        assertAggregate(3, 12);
+    }
+
+    @Test
+    void rebuildResetsRecipesWithoutReviewsToThePrior() {
+        reviewService.saveReview(review(5));
+        reviewRepo.deleteAll();
+
+        reviewService.rebuildRatingAggregates();
+        assertAggregate(0, 0);
+    }
+
+    private ReviewDTO review(int rating) {
+        return ReviewDTO.builder().name("Reviewer").comment("Comment").rating(rating).recipeId(recipeId).build();
+    }
+
+    private void assertAggregate(long count, long sum) {
+        Recipe recipe = recipeRepo.findById(recipeId).get();
+        assertEquals(count, recipe.getReviewCount());
+        assertEquals(sum, recipe.getRatingSum());
+        assertEquals((5 * 3.0 + sum) / (5 + count), recipe.getRating(), 1e-9);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.RecipePageDTO;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RecipeQueryCountTest {
+
+    private static final int RECIPE_COUNT = 40;
+
+    // one query for the recipes plus one per element collection
+    private static final long MAX_LISTING_STATEMENTS = 4;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle("Recipe " + i);
+            recipe.setDescription("Description " + i);
+            recipe.setIngredients(new ArrayList<>(Arrays.asList("salt", "pepper", "ingredient " + i)));
+            recipe.setSteps(new ArrayList<>(Arrays.asList("step one", "step two")));
+            recipe.setCategory("Dinner");
+            recipe.setRating(4.0);
+            recipe.setImageUrls(new HashSet<>(Arrays.asList("/uploads/a" + i + ".jpg", "/uploads/b" + i + ".jpg")));
+            recipes.add(recipe);
+        }
+        recipeRepo.saveAll(recipes);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void getAllRecipesUsesFixedNumberOfQueries() {
+        List<RecipeDTO> recipes = recipeService.getAllRecipes();
+
+        assertEquals(RECIPE_COUNT, recipes.size());
+        assertEquals(3, recipes.get(0).getIngredients().size());
+        assertEquals(2, recipes.get(0).getSteps().size());
+        assertEquals(2, recipes.get(0).getImageUrls().size());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_LISTING_STATEMENTS,
+                "listing took " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void recipePageUsesFixedNumberOfQueries() {
+        RecipePageDTO page = recipeService.getRecipePage(null, 25);
+
+        assertEquals(25, page.getContent().size());
+        assertTrue(page.isHasMore());
+        assertEquals(2, page.getContent().get(24).getSteps().size());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_LISTING_STATEMENTS,
+                "page took " + statistics.getPrepareStatementCount() + " statements");
+
+        RecipePageDTO next = recipeService.getRecipePage(page.getNextCursor(), 25);
+        assertEquals(RECIPE_COUNT - 25, next.getContent().size());
+        assertEquals(false, next.isHasMore());
+    }
+
+    @Test
+    void cachedPageReloadsEvictedRecipesInBatches() {
+        recipeService.getRecipePage(null, 25);
+        // the ids stay in the query cache while the entities themselves were evicted
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictEntityData(Recipe.class);
+        statistics.clear();
+
+        RecipePageDTO page = recipeService.getRecipePage(null, 25);
+
+        assertEquals(25, page.getContent().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        // the three collection queries, plus the 26 recipes in batches of 25 and 1 rather than one select each
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+}
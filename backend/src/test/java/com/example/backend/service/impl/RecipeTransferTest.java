@@ -0,0 +1,101 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.ImportResultDTO;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.RecipeTransferService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RecipeTransferTest {
+
+    private static final int RECIPE_COUNT = 1000;
+
+    @Autowired
+    private RecipeTransferService recipeTransferService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepo.deleteAll();
+    }
+
+    @Test
+    void ndjsonImportIsBatched() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            body.append("{\"title\":\"Recipe ").append(i).append("\",\"category\":\"Dinner\",\"rating\":4.5,")
+                    .append("\"ingredients\":[\"salt\",\"pepper\",\"ingredient ").append(i).append("\"],")
+                    .append("\"steps\":[\"step one\",\"step two\"]}\n");
+        }
+        body.append("{\"description\":\"no title\"}\n");
+        body.append("{not json\n");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ImportResultDTO result = recipeTransferService.importRecipes(stream(body.toString()), "ndjson");
+
+        assertEquals(RECIPE_COUNT, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(RECIPE_COUNT, recipeRepo.count());
+        // unbatched this would be six inserts per recipe
+        assertTrue(statistics.getPrepareStatementCount() < RECIPE_COUNT / 4,
+                "import took " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void csvExportRoundTrips() throws Exception {
+        String csv = "title,description,category,rating,ingredients,steps\n"
+                + "Pancakes,\"Fluffy, light\",Breakfast,4.5,\"flour\nmilk\neggs\",\"Mix\nFry \"\"gently\"\"\"\n"
+                + "Toast,,Breakfast,,bread,Toast it\n";
+        ImportResultDTO result = recipeTransferService.importRecipes(stream(csv), "csv");
+        assertEquals(2, result.getImported());
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        recipeTransferService.exportRecipes(exported, "csv");
+        recipeRepo.deleteAll();
+
+        ImportResultDTO reimported = recipeTransferService.importRecipes(
+                new ByteArrayInputStream(exported.toByteArray()), "csv");
+        assertEquals(2, reimported.getImported());
+
+        List<RecipeDTO> recipes = new ArrayList<>();
+        recipeService.streamAllRecipes(recipes::add);
+        RecipeDTO pancakes = recipes.get(0);
+        assertEquals("Pancakes", pancakes.getTitle());
+        assertEquals("Fluffy, light", pancakes.getDescription());
+        assertEquals(4.5, pancakes.getRating());
+        assertEquals(List.of("flour", "milk", "eggs"), pancakes.getIngredients());
+        assertEquals(List.of("Mix", "Fry \"gently\""), pancakes.getSteps());
+        assertEquals(0.0, recipes.get(1).getRating());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.ReviewPageDTO;
+import com.example.backend.entity.Review;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.service.ReviewService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ReviewFeedTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepo reviewRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            // pairs of reviews share a timestamp, so the id tiebreak is exercised
+            Instant createdAt = BASE.plus(i / 2, ChronoUnit.MINUTES);
+            reviews.add(Review.builder().name("Reviewer " + i).comment("Comment " + i)
+                    .rating(1 + i % 5).recipeId(i % 3 == 0 ? 7L : 8L).createdAt(createdAt).build());
+        }
+        reviewRepo.saveAll(reviews);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepo.deleteAll();
+    }
+
+    @Test
+    void pagesThroughNewestFirstWithoutGapsOrRepeats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ReviewDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReviewPageDTO page = reviewService.getReviewFeed(null, null, null, null, cursor, 7);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(30, seen.size());
+        assertEquals(5, pages);
+        for (int i = 1; i < seen.size(); i++) {
+            ReviewDTO previous = seen.get(i - 1);
+            ReviewDTO current = seen.get(i);
+            int order = previous.getCreatedAt().compareTo(current.getCreatedAt());
+            assertTrue(order > 0 || (order == 0 && previous.getId() > current.getId()));
+        }
+        // projections only: one statement per page and no entities loaded
+        assertEquals(pages, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void filtersByRecipeRatingAndRecency() {
+        ReviewPageDTO page = reviewService.getReviewFeed(7L, 4, 5, BASE.plus(5, ChronoUnit.MINUTES), null, 50);
+
+        assertFalse(page.isHasMore());
+        assertFalse(page.getContent().isEmpty());
+        for (ReviewDTO review : page.getContent()) {
+            assertEquals(Long.valueOf(7L), review.getRecipeId());
+            assertTrue(review.getRating() >= 4);
+            assertFalse(review.getCreatedAt().isBefore(BASE.plus(5, ChronoUnit.MINUTES)));
+        }
+    }
+
+    @Test
+    void rejectsForgedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewFeed(null, null, null, null, "bm90LWEtY3Vyc29y", 10));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.calendar.ActiveMealPlanCache;
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.ShoppingItemDTO;
+import com.example.backend.dto.ShoppingListDTO;
+import com.example.backend.entity.Meal;
+import com.example.backend.entity.PlannedRecipe;
+import com.example.backend.entity.Recipe;
+import com.example.backend.repo.MealRepo;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.service.MealService;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.ShoppingListService;
+import com.example.backend.shopping.ParsedIngredient;
+import com.example.backend.shopping.ParsedIngredientCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ShoppingListTest {
+
+    @Autowired
+    private ShoppingListService shoppingListService;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private MealRepo mealRepo;
+
+    @Autowired
+    private RecipeRepo recipeRepo;
+
+    @Autowired
+    private ActiveMealPlanCache activeMealPlanCache;
+
+    @Autowired
+    private ParsedIngredientCache parsedIngredientCache;
+
+    // other test classes delete recipes straight through the repository, behind the cache's back
+    @BeforeEach
+    void setUp() {
+        parsedIngredientCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mealRepo.deleteAll();
+        recipeRepo.deleteAll();
+        activeMealPlanCache.load(activeMealPlanCache.getWindowStart(), List.of());
+    }
+
+    @Test
+    void addsUpIngredientsAcrossPlannedRecipes() {
+        Long pancakes = recipe("Pancakes", "1 cup milk", "2 eggs", "1 tbsp sugar", "salt");
+        Long omelette = recipe("Omelette", "3 eggs", "2 tbsp milk", "salt and pepper");
+        LocalDate monday = LocalDate.now().plusDays(1);
+
+        Meal week = new Meal(null, "Breakfasts", null, monday, monday.plusDays(6), new ArrayList<>(), null);
+        week.getRecipes().add(new PlannedRecipe(monday, "breakfast", pancakes, 2.0));
+        week.getRecipes().add(new PlannedRecipe(monday.plusDays(1), "breakfast", omelette, null));
+        week.getRecipes().add(new PlannedRecipe(monday.plusDays(5), "breakfast", pancakes, null));
+        mealService.saveMeal(week);
+
+        ShoppingListDTO list = shoppingListService.buildShoppingList(monday, monday.plusDays(2));
+        assertEquals(2, list.getPlannedRecipes());
+        Map<String, ShoppingItemDTO> items = list.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getName() + "|" + item.getUnit(), item -> item));
+        assertEquals(510.0, items.get("milk|ml").getQuantity());
+        assertEquals(2, items.get("milk|ml").getUses());
+        assertEquals(7.0, items.get("egg|").getQuantity());
+        assertEquals(30.0, items.get("sugar|ml").getQuantity());
+        assertNull(items.get("salt|null").getQuantity());
+
+        assertEquals(3, shoppingListService.buildShoppingList(monday, monday.plusDays(6)).getPlannedRecipes());
+    }
+
+    @Test
+    void ingredientsAreParsedWhenTheRecipeIsWritten() throws Exception {
+        RecipeDTO recipeDTO = new RecipeDTO();
+        recipeDTO.setTitle("Shortbread");
+        recipeDTO.setIngredients(List.of("200g butter", ""));
+        recipeService.saveRecipe(recipeDTO, null);
+        Long id = recipeRepo.findAll().get(0).getId();
+
+        List<ParsedIngredient> stored = recipeRepo.fetchParsedIngredients(List.of(id)).get(0).getParsedIngredients();
+        assertEquals(1, stored.size());
+        assertEquals("butter", stored.get(0).getName());
+        assertEquals(200.0, stored.get(0).getQuantity());
+        assertEquals("g", stored.get(0).getUnit());
+
+        recipeDTO.setIngredients(List.of("1 kg butter", "2 cups flour"));
+        recipeService.updateRecipe(id, recipeDTO, null);
+        stored = recipeRepo.fetchParsedIngredients(List.of(id)).get(0).getParsedIngredients();
+        assertEquals(2, stored.size());
+        assertEquals(1000.0, stored.get(0).getQuantity());
+        assertEquals("flour", stored.get(1).getName());
+    }
+
+    @Test
+    void rejectsBackwardsRange() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> shoppingListService.buildShoppingList(today, today.minusDays(1)));
+    }
+
+    private Long recipe(String title, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setRating(0.0);
+        recipe.setIngredients(new ArrayList<>(List.of(ingredients)));
+        recipe.setImageUrls(new HashSet<>());
+        return recipeRepo.save(recipe).getId();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.dto.RecipeDTO;
+import com.example.backend.dto.ReviewDTO;
+import com.example.backend.dto.TechniqueDTO;
+import com.example.backend.entity.Meal;
+import com.example.backend.entity.Recipe;
+import com.example.backend.entity.Technique;
+import com.example.backend.mapper.RecipeMapper;
+import com.example.backend.repo.MealRepo;
+import com.example.backend.repo.RecipeRepo;
+import com.example.backend.repo.ReviewRepo;
+import com.example.backend.repo.TechniqueRepo;
+import com.example.backend.service.MealService;
+import com.example.backend.service.RecipeService;
+import com.example.backend.service.ReviewService;
+import com.example.backend.service.TechniqueService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// statements each write takes, counted by Hibernate
+@SpringBootTest
+class WriteStatementCountTest {
+
+    @Autowired
+    private TechniqueService techniqueService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private RecipeService recipeService;
+    @Autowired
+    private MealService mealService;
+    @Autowired
+    private TechniqueRepo techniqueRepo;
+    @Autowired
+    private ReviewRepo reviewRepo;
+    @Autowired
+    private RecipeRepo recipeRepo;
+    @Autowired
+    private MealRepo mealRepo;
+    @Autowired
+    private RecipeMapper recipeMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepo.deleteAll();
+        recipeRepo.deleteAll();
+        techniqueRepo.deleteAll();
+        mealRepo.deleteAll();
+    }
+
+    @Test
+    void techniqueWrites() {
+        Long id = techniqueRepo.save(new Technique(null, "Julienne", "Thin strips", null, "easy", "knife", null)).getTechniqueId();
+        TechniqueDTO edit = new TechniqueDTO(id, "Julienne", "Matchsticks", null, "easy", "knife", null);
+
+        // a read and the versioned update; once read, the technique comes from the second-level cache,
+        // so the delete only writes
+        assertStatements(2, () -> techniqueService.updateTechnique(edit, null));
+        assertEquals("Matchsticks", techniqueRepo.findById(id).get().getDescription());
+        assertStatements(1, () -> techniqueService.deleteTechnique(id, null));
+        assertEquals(0, techniqueRepo.count());
+        assertStatements(1, () -> techniqueService.deleteTechnique(id, null));
+    }
+
+    @Test
+    void reviewWrites() {
+        Long recipeId = recipeRepo.save(recipe()).getId();
+        reviewService.saveReview(ReviewDTO.builder().name("Ann").comment("Good").rating(4).recipeId(recipeId).build());
+        Long id = reviewRepo.findAll().get(0).getId();
+
+        // the review comes from the cache; then the aggregate update, its re-read and the review itself.
+        // The recipe's lists stay cached for the indexes, since nothing bulk-evicts them any more
+        assertStatements(3, () -> reviewService.updateReview(id,
+                ReviewDTO.builder().name("Ann").comment("Better").rating(5).recipeId(recipeId).build(), null));
+        assertStatements(3, () -> reviewService.deleteReview(id, null));
+        assertEquals(0, recipeRepo.findById(recipeId).get().getReviewCount());
+    }
+
+    @Test
+    void recipeWrites() {
+        Recipe saved = recipeRepo.save(recipe());
+        RecipeDTO edit = recipeMapper.toDto(saved);
+        edit.setTitle("Shakshuka with feta");
+
+        recipeService.updateRecipe(saved.getId(), edit, null);
+        assertEquals("Shakshuka with feta", recipeRepo.findById(saved.getId()).get().getTitle());
+        // previously existsById ahead of the load; the parsed ingredient lines are deleted with the others
+        assertStatements(6, () -> recipeService.deleteRecipe(saved.getId(), null));
+    }
+
+    @Test
+    void recipeListEditsArePositional() {
+        Recipe recipe = recipe();
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            steps.add("Step " + i);
+        }
+        recipe.setSteps(steps);
+        Recipe saved = recipeRepo.save(recipe);
+        RecipeDTO edit = recipeMapper.toDto(saved);
+        edit.setTitle("Shakshuka with feta");
+
+        // load, steps batch, then one row: the recipe, the changed step or the appended one, plus the
+        // recipe's version bump for a list edit. Unordered lists were deleted and reinserted whole on every save
+        assertStatements(3, () -> recipeService.updateRecipe(saved.getId(), edit, null));
+        edit.getSteps().set(30, "Step thirty");
+        assertStatements(4, () -> recipeService.updateRecipe(saved.getId(), edit, null));
+        edit.getSteps().add("Serve");
+        assertStatements(4, () -> recipeService.updateRecipe(saved.getId(), edit, null));
+
+        List<String> stored = jdbcTemplate.queryForList(
+                "select step from recipe_steps where dish_id = ? order by step_order", String.class, saved.getId());
+        assertEquals(edit.getSteps(), stored);
+    }
+
+    @Test
+    void recipePatchesTouchOnlyWhatTheyName() throws Exception {
+        Recipe recipe = recipe();
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            steps.add("Step " + i);
+        }
+        recipe.setSteps(steps);
+        Long id = recipeRepo.save(recipe).getId();
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode titlePatch = objectMapper.readTree("{\"title\":\"Shakshuka with feta\"}");
+        steps.set(30, "Step thirty");
+        JsonNode stepPatch = objectMapper.valueToTree(Map.of("steps", steps));
+
+        // load, the one-column update, and the steps read for the response
+        evictSecondLevelCache();
+        assertStatements(3, () -> recipeService.patchRecipe(id, titlePatch, null));
+        // load, steps, the one changed step and the version bump
+        evictSecondLevelCache();
+        assertStatements(4, () -> recipeService.patchRecipe(id, stepPatch, null));
+        assertEquals("Step thirty", jdbcTemplate.queryForObject(
+                "select step from recipe_steps where dish_id = ? and step_order = 30", String.class, id));
+    }
+
+    @Test
+    void mealWrites() {
+        Meal meal = new Meal(null, "Week", null, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 11), new ArrayList<>(), null);
+        Long id = mealService.saveMeal(meal).getId();
+        Meal edit = new Meal(null, "Busy week", null, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 11), new ArrayList<>(), null);
+
+        assertStatements(3, () -> mealService.updateMeal(id, edit, null));
+        assertEquals("Busy week", mealRepo.findById(id).get().getTitle());
+        assertStatements(2, () -> mealService.deleteMeal(id, null));
+    }
+
+    private Recipe recipe() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Shakshuka");
+        recipe.setRating(4.0);
+        recipe.setIngredients(new ArrayList<>(Arrays.asList("eggs", "tomatoes")));
+        recipe.setSteps(new ArrayList<>(Arrays.asList("Simmer", "Crack eggs")));
+        recipe.setImageUrls(new HashSet<>());
+        return recipe;
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private void assertStatements(long expected, Runnable write) {
+        statistics.clear();
+        write.run();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.shopping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IngredientParserTest {
+
+    @Test
+    void readsAmountsAndConvertsUnits() {
+        assertParsed("1 1/2 cups milk", 360.0, "ml");
+        assertParsed("½ tsp salt", 2.5, "ml");
+        assertParsed("200g butter", 200.0, "g");
+        assertParsed("1 lb. chicken thighs", 453.592, "g");
+        assertParsed("2-3 cloves garlic, minced", 3.0, "clove");
+        assertParsed("3 eggs", 3.0, "");
+    }
+
+    @Test
+    void linesWithoutAnAmountHaveNoQuantity() {
+        ParsedIngredient parsed = IngredientParser.parse("salt and pepper to taste");
+        assertNull(parsed.getQuantity());
+        assertNull(parsed.getUnit());
+    }
+
+    private static void assertParsed(String line, double quantity, String unit) {
+        ParsedIngredient parsed = IngredientParser.parse(line);
+        assertEquals(quantity, parsed.getQuantity(), 1e-6, line);
+        assertEquals(unit, parsed.getUnit(), line);
+    }
+}